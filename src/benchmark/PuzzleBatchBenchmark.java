@@ -0,0 +1,43 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import model.PuzzleBatch;
+
+/**
+ * Times PuzzleBatch on pools of 1, 2, 4, ... threads up to the number of
+ * cores, and prints throughput and speedup over one thread. Run as a plain
+ * Java program, optionally with the difficulty, batch size and maximum thread
+ * count as arguments. It isn't a test, so it lives outside the tests package.
+ */
+public class PuzzleBatchBenchmark {
+
+	public static void main(String[] args) {
+		String difficulty = args.length > 0 ? args[0] : "HARD";
+		int count = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		int cores = Runtime.getRuntime().availableProcessors();
+		int maxThreads = Math.max(1, args.length > 2 ? Integer.parseInt(args[2]) : cores);
+
+		// warm up the JIT before timing anything
+		new PuzzleBatch(difficulty, count, 0).generate();
+
+		System.out.println(count + " " + difficulty + " boards, " + cores + " cores");
+		double single = 0;
+		for (int threads = 1;; threads = Math.min(threads * 2, maxThreads)) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			long start = System.nanoTime();
+			new PuzzleBatch(difficulty, count, 42).generate(pool);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			pool.shutdown();
+
+			double perSecond = count / seconds;
+			if (threads == 1) {
+				single = perSecond;
+			}
+			System.out.printf("%3d threads: %8.0f boards/s  speedup %.2fx%n", threads, perSecond, perSecond / single);
+			if (threads == maxThreads) {
+				break;
+			}
+		}
+	}
+}
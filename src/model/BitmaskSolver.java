@@ -0,0 +1,349 @@
+package model;
+
+/**
+ * Backtracking Sudoku solver that keeps a 9-bit mask of the digits already
+ * used in every row, column and 3x3 block. Checking whether a digit fits a
+ * cell is a couple of bitwise operations instead of a scan over 27 cells, and
+ * the masks are updated in place as digits are placed and backtracked.
+ *
+ * The search always branches on the empty cell with the fewest digits left
+ * (minimum remaining values), which keeps even very sparse boards down to a
+ * small number of guesses. It works on int arrays only and reuses its scratch
+ * space, so a solver can be called repeatedly without allocating.
+ *
+ * A board can also be loaded once and then changed a cell at a time with
+ * {@link #place} and {@link #remove}, which update the masks in place, so
+ * questions about the loaded board don't rebuild them.
+ *
+ * Bit (n - 1) of a mask is set when digit n is used in that unit.
+ */
+public class BitmaskSolver implements SudokuSolver {
+
+	// row, column and block of each of the 81 cells, in row-major order
+	private static final int[] ROW = new int[81];
+	private static final int[] COL = new int[81];
+	private static final int[] BLOCK = new int[81];
+
+	static {
+		for (int i = 0; i < 81; i++) {
+			ROW[i] = i / 9;
+			COL[i] = i % 9;
+			BLOCK[i] = blockIndex(i / 9, i % 9);
+		}
+	}
+
+	private final int[] rowMasks = new int[9];
+	private final int[] colMasks = new int[9];
+	private final int[] blockMasks = new int[9];
+	// the loaded board, row-major, 0 for empty
+	private final int[] cells = new int[81];
+
+	// scratch space for the search, reused between calls
+	private final int[] empties = new int[81];
+	private final int[] options = new int[81];
+	private final int[] trail = new int[81];
+	private final int[] frees = new int[81];
+	// digits free in at least one / at least two remaining cells of each unit
+	private final int[] once = new int[27];
+	private final int[] twice = new int[27];
+
+	/**
+	 * Rebuilds the masks from the given board. Empty cells are 0.
+	 *
+	 * @param board 2D int array representing the board.
+	 * @return False if a digit is repeated in a row, column or block.
+	 */
+	@Override
+	public boolean load(int[][] board) {
+		for (int i = 0; i < 9; i++) {
+			rowMasks[i] = 0;
+			colMasks[i] = 0;
+			blockMasks[i] = 0;
+		}
+		for (int i = 0; i < 81; i++) {
+			cells[i] = 0;
+		}
+		boolean valid = true;
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				int n = board[r][c];
+				if (n != 0) {
+					valid &= canPlace(r, c, n);
+					place(r, c, n);
+				}
+			}
+		}
+		return valid;
+	}
+
+	/**
+	 * Checks if n can be placed at the given cell without repeating a digit in
+	 * its row, column or block. Constant time.
+	 *
+	 * @param row Specified row.
+	 * @param col Specified column.
+	 * @param n   Value being checked.
+	 * @return True if valid.
+	 */
+	public boolean canPlace(int row, int col, int n) {
+		return (usedMask(row, col) & (1 << (n - 1))) == 0;
+	}
+
+	/**
+	 * Marks n as used in the row, column and block of the given cell.
+	 */
+	@Override
+	public void place(int row, int col, int n) {
+		cells[row * 9 + col] = n;
+		int bit = 1 << (n - 1);
+		rowMasks[row] |= bit;
+		colMasks[col] |= bit;
+		blockMasks[blockIndex(row, col)] |= bit;
+	}
+
+	/**
+	 * Clears n from the row, column and block of the given cell.
+	 */
+	@Override
+	public void remove(int row, int col, int n) {
+		cells[row * 9 + col] = 0;
+		int bit = ~(1 << (n - 1));
+		rowMasks[row] &= bit;
+		colMasks[col] &= bit;
+		blockMasks[blockIndex(row, col)] &= bit;
+	}
+
+	@Override
+	public int countSolutions(int[][] board, int limit) {
+		if (limit <= 0 || !load(board)) {
+			return 0;
+		}
+		int count = collectEmpties(-1);
+		if (count == 0) {
+			return 1;
+		}
+		chooseCell(0, count);
+		int found = search(count, limit);
+		unwind(count);
+		return found;
+	}
+
+	@Override
+	public boolean solve(int[][] board) {
+		if (!load(board)) {
+			return false;
+		}
+		int count = collectEmpties(-1);
+		if (count == 0) {
+			return true;
+		}
+		chooseCell(0, count);
+		boolean found = search(count, 1) > 0;
+		if (found) {
+			for (int depth = 0; depth < count; depth++) {
+				int cell = empties[depth];
+				board[cell / 9][cell % 9] = Integer.numberOfTrailingZeros(trail[depth]) + 1;
+			}
+		}
+		unwind(count);
+		return found;
+	}
+
+	@Override
+	public boolean hasSolutionExcluding(int[][] board, int row, int col, int value) {
+		return load(board) && hasSolutionExcluding(row, col, value);
+	}
+
+	@Override
+	public boolean hasSolutionExcluding(int row, int col, int value) {
+		int count = collectEmpties(row * 9 + col);
+		options[0] = freeMask(empties[0]) & ~(1 << (value - 1));
+		boolean found = search(count, 1) > 0;
+		unwind(count);
+		return found;
+	}
+
+	/**
+	 * Lists the empty cells of the loaded board in empties, with the first cell
+	 * given (if any) put first.
+	 *
+	 * @return How many empty cells there are.
+	 */
+	private int collectEmpties(int first) {
+		int count = 0;
+		if (first >= 0) {
+			empties[count++] = first;
+		}
+		for (int i = 0; i < 81; i++) {
+			if (cells[i] == 0 && i != first) {
+				empties[count++] = i;
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			trail[i] = 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Iterative depth first search over the empty cells. Level 0 must already
+	 * have its cell and options set up; every deeper level branches on the empty
+	 * cell with the fewest options left. The digit placed at each level is kept
+	 * on the trail so it can be taken back out of the masks on backtrack.
+	 *
+	 * @param count How many empty cells there are.
+	 * @param limit Stop searching after this many solutions.
+	 * @return How many solutions were found, at most limit. When limit is
+	 *         reached the trail is left holding the last solution.
+	 */
+	private int search(int count, int limit) {
+		int solutions = 0;
+		int depth = 0;
+		while (depth >= 0) {
+			int cell = empties[depth];
+			if (trail[depth] != 0) {
+				unplace(cell, trail[depth]);
+				trail[depth] = 0;
+			}
+			if (options[depth] == 0) {
+				depth--;
+				continue;
+			}
+			int bit = options[depth] & -options[depth];
+			options[depth] ^= bit;
+			placeBit(cell, bit);
+			trail[depth] = bit;
+
+			if (depth + 1 == count) {
+				if (++solutions >= limit) {
+					return solutions;
+				}
+				continue;
+			}
+			chooseCell(++depth, count);
+		}
+		return solutions;
+	}
+
+	/**
+	 * Moves the remaining empty cell with the fewest options to position depth,
+	 * and sets up its options. If no cell is down to one option, also looks for
+	 * a digit that fits in only one cell of some row, column or block, and forces
+	 * that cell to that digit instead. Leaves no options at all when some cell or
+	 * some unit's missing digit has nowhere left to go.
+	 */
+	private void chooseCell(int depth, int count) {
+		for (int u = 0; u < 27; u++) {
+			once[u] = 0;
+			twice[u] = 0;
+		}
+		int best = depth;
+		int bestFree = 0;
+		int bestCount = 10;
+		for (int i = depth; i < count; i++) {
+			int cell = empties[i];
+			int free = freeMask(cell);
+			frees[i] = free;
+			int n = Integer.bitCount(free);
+			if (n < bestCount) {
+				best = i;
+				bestFree = free;
+				bestCount = n;
+				if (n == 0) {
+					break;
+				}
+			}
+			tally(ROW[cell], free);
+			tally(9 + COL[cell], free);
+			tally(18 + BLOCK[cell], free);
+		}
+
+		if (bestCount > 1) {
+			for (int u = 0; u < 27 && bestCount > 1; u++) {
+				int missing = ~unitMask(u) & 0x1FF;
+				if ((missing & ~once[u]) != 0) {
+					bestFree = 0;
+					bestCount = 0;
+				} else if ((once[u] & ~twice[u]) != 0) {
+					int bit = Integer.lowestOneBit(once[u] & ~twice[u]);
+					for (int i = depth; i < count; i++) {
+						if ((frees[i] & bit) != 0 && inUnit(empties[i], u)) {
+							best = i;
+							break;
+						}
+					}
+					bestFree = bit;
+					bestCount = 1;
+				}
+			}
+		}
+
+		int swap = empties[depth];
+		empties[depth] = empties[best];
+		empties[best] = swap;
+		options[depth] = bestFree;
+	}
+
+	private void tally(int unit, int free) {
+		twice[unit] |= once[unit] & free;
+		once[unit] |= free;
+	}
+
+	/**
+	 * Units are numbered rows 0-8, columns 9-17, blocks 18-26.
+	 */
+	private int unitMask(int unit) {
+		if (unit < 9) {
+			return rowMasks[unit];
+		} else if (unit < 18) {
+			return colMasks[unit - 9];
+		}
+		return blockMasks[unit - 18];
+	}
+
+	private static boolean inUnit(int cell, int unit) {
+		if (unit < 9) {
+			return ROW[cell] == unit;
+		} else if (unit < 18) {
+			return COL[cell] == unit - 9;
+		}
+		return BLOCK[cell] == unit - 18;
+	}
+
+	/**
+	 * Takes whatever is still on the trail back out of the masks, leaving them
+	 * the way load set them up.
+	 */
+	private void unwind(int count) {
+		for (int depth = count - 1; depth >= 0; depth--) {
+			if (trail[depth] != 0) {
+				unplace(empties[depth], trail[depth]);
+				trail[depth] = 0;
+			}
+		}
+	}
+
+	private int freeMask(int cell) {
+		return ~(rowMasks[ROW[cell]] | colMasks[COL[cell]] | blockMasks[BLOCK[cell]]) & 0x1FF;
+	}
+
+	private void placeBit(int cell, int bit) {
+		rowMasks[ROW[cell]] |= bit;
+		colMasks[COL[cell]] |= bit;
+		blockMasks[BLOCK[cell]] |= bit;
+	}
+
+	private void unplace(int cell, int bit) {
+		rowMasks[ROW[cell]] &= ~bit;
+		colMasks[COL[cell]] &= ~bit;
+		blockMasks[BLOCK[cell]] &= ~bit;
+	}
+
+	private int usedMask(int row, int col) {
+		return rowMasks[row] | colMasks[col] | blockMasks[blockIndex(row, col)];
+	}
+
+	private static int blockIndex(int row, int col) {
+		return (row / 3) * 3 + col / 3;
+	}
+}
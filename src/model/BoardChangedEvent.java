@@ -0,0 +1,80 @@
+package model;
+
+import java.util.BitSet;
+
+/**
+ * Sent to a game's observers once for each move, undo or batch of changes,
+ * saying which cells changed and what changed about each.
+ */
+public class BoardChangedEvent {
+
+	/**
+	 * What about a cell changed.
+	 */
+	public enum Change {
+		/** The held value. */
+		VALUE,
+		/** The candidates. */
+		CANDIDATES,
+		/** Whether the cell's value clashes with another cell in its units. */
+		CONFLICT
+	}
+
+	private final SudokuGame game;
+	private final BitSet values;
+	private final BitSet candidates;
+	private final BitSet conflicts;
+
+	/**
+	 * @param game       The game that changed.
+	 * @param values     Cells whose held value changed.
+	 * @param candidates Cells whose candidates changed.
+	 * @param conflicts  Cells that started or stopped clashing with another cell.
+	 */
+	public BoardChangedEvent(SudokuGame game, BitSet values, BitSet candidates, BitSet conflicts) {
+		this.game = game;
+		this.values = values;
+		this.candidates = candidates;
+		this.conflicts = conflicts;
+	}
+
+	public SudokuGame getGame() {
+		return game;
+	}
+
+	/**
+	 * @return Set bit row * 9 + col for each cell that changed in any way. May be
+	 *         empty, if a move changed nothing.
+	 */
+	public BitSet getChangedCells() {
+		BitSet cells = (BitSet) values.clone();
+		cells.or(candidates);
+		cells.or(conflicts);
+		return cells;
+	}
+
+	/**
+	 * @return Set bit row * 9 + col for each cell where that changed.
+	 */
+	public BitSet getChangedCells(Change change) {
+		return (BitSet) cells(change).clone();
+	}
+
+	/**
+	 * @return True if that changed about the cell.
+	 */
+	public boolean hasChanged(int row, int col, Change change) {
+		return cells(change).get(row * 9 + col);
+	}
+
+	private BitSet cells(Change change) {
+		switch (change) {
+		case VALUE:
+			return values;
+		case CANDIDATES:
+			return candidates;
+		default:
+			return conflicts;
+		}
+	}
+}
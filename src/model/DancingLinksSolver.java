@@ -0,0 +1,278 @@
+package model;
+
+/**
+ * Sudoku solver using Knuth's Algorithm X with Dancing Links. Sudoku is treated
+ * as an exact cover problem: each of the 729 (row, column, digit) candidates
+ * covers one cell, one row-digit, one column-digit and one block-digit
+ * constraint, and a solution picks 81 candidates covering all 324 constraints
+ * exactly once.
+ *
+ * The links are kept in flat int arrays that are built once per solver. Givens
+ * are covered at the start of each call and uncovered again at the end, so the
+ * same solver can be called repeatedly without allocating.
+ *
+ * A loaded board is kept as a plain copy that place and remove edit, and is
+ * covered like any other board when a question is asked about it.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+
+	private static final int COLUMNS = 324;
+	private static final int CANDIDATES = 729;
+	private static final int ROOT = 0;
+
+	// node 0 is the root, 1..324 are column headers, the rest are candidate nodes
+	private final int[] left, right, up, down, column, candidate;
+	private final int[] size = new int[COLUMNS + 1];
+	private final int[] firstNode = new int[CANDIDATES];
+
+	private final boolean[] covered = new boolean[COLUMNS + 1];
+	private final int[] coveredStack = new int[COLUMNS];
+	private int coveredCount;
+
+	private final int[] partial = new int[81];
+	private int solutions;
+	private int limit;
+	private int[][] target;
+	private final int[][] loaded = new int[9][9];
+
+	public DancingLinksSolver() {
+		int nodes = 1 + COLUMNS + CANDIDATES * 4;
+		left = new int[nodes];
+		right = new int[nodes];
+		up = new int[nodes];
+		down = new int[nodes];
+		column = new int[nodes];
+		candidate = new int[nodes];
+
+		for (int h = 0; h <= COLUMNS; h++) {
+			left[h] = h == 0 ? COLUMNS : h - 1;
+			right[h] = h == COLUMNS ? 0 : h + 1;
+			up[h] = h;
+			down[h] = h;
+			column[h] = h;
+		}
+
+		int node = COLUMNS + 1;
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				for (int d = 0; d < 9; d++) {
+					int cand = (r * 9 + c) * 9 + d;
+					int b = (r / 3) * 3 + c / 3;
+					int[] cols = { 1 + r * 9 + c, 1 + 81 + r * 9 + d, 1 + 162 + c * 9 + d, 1 + 243 + b * 9 + d };
+					firstNode[cand] = node;
+					for (int i = 0; i < 4; i++) {
+						int n = node + i;
+						left[n] = node + (i + 3) % 4;
+						right[n] = node + (i + 1) % 4;
+						link(n, cols[i], cand);
+					}
+					node += 4;
+				}
+			}
+		}
+	}
+
+	@Override
+	public int countSolutions(int[][] board, int limit) {
+		if (limit <= 0) {
+			return 0;
+		}
+		return run(board, limit, null);
+	}
+
+	@Override
+	public boolean solve(int[][] board) {
+		return run(board, 1, board) > 0;
+	}
+
+	@Override
+	public boolean hasSolutionExcluding(int[][] board, int row, int col, int value) {
+		solutions = 0;
+		limit = 1;
+		target = null;
+		int cell = 1 + row * 9 + col;
+		if (coverGivens(board) && !covered[cell]) {
+			// branch on the target cell first, skipping the excluded digit
+			int excluded = (row * 9 + col) * 9 + value - 1;
+			cover(cell);
+			for (int r = down[cell]; r != cell && solutions == 0; r = down[r]) {
+				if (candidate[r] == excluded) {
+					continue;
+				}
+				partial[0] = r;
+				for (int j = right[r]; j != r; j = right[j]) {
+					cover(column[j]);
+				}
+				search(1);
+				for (int j = left[r]; j != r; j = left[j]) {
+					uncover(column[j]);
+				}
+			}
+			uncover(cell);
+		}
+		uncoverGivens();
+		return solutions > 0;
+	}
+
+	@Override
+	public boolean load(int[][] board) {
+		for (int r = 0; r < 9; r++) {
+			System.arraycopy(board[r], 0, loaded[r], 0, 9);
+		}
+		boolean valid = coverGivens(loaded);
+		uncoverGivens();
+		return valid;
+	}
+
+	@Override
+	public void place(int row, int col, int n) {
+		loaded[row][col] = n;
+	}
+
+	@Override
+	public void remove(int row, int col, int n) {
+		loaded[row][col] = 0;
+	}
+
+	@Override
+	public boolean hasSolutionExcluding(int row, int col, int value) {
+		return hasSolutionExcluding(loaded, row, col, value);
+	}
+
+	/**
+	 * Covers the givens of the board, searches, then restores the links so the
+	 * solver is ready for the next call.
+	 */
+	private int run(int[][] board, int limit, int[][] target) {
+		solutions = 0;
+		this.limit = limit;
+		this.target = target;
+		if (coverGivens(board)) {
+			search(0);
+		}
+		uncoverGivens();
+		this.target = null;
+		return solutions;
+	}
+
+	private void uncoverGivens() {
+		while (coveredCount > 0) {
+			int c = coveredStack[--coveredCount];
+			uncover(c);
+			covered[c] = false;
+		}
+	}
+
+	/**
+	 * Covers the four constraints of every given.
+	 *
+	 * @return False if two givens conflict, meaning there are no solutions.
+	 */
+	private boolean coverGivens(int[][] board) {
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				int d = board[r][c];
+				if (d == 0) {
+					continue;
+				}
+				int first = firstNode[(r * 9 + c) * 9 + d - 1];
+				int n = first;
+				do {
+					if (covered[column[n]]) {
+						return false;
+					}
+					n = right[n];
+				} while (n != first);
+				do {
+					cover(column[n]);
+					covered[column[n]] = true;
+					coveredStack[coveredCount++] = column[n];
+					n = right[n];
+				} while (n != first);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Algorithm X, always branching on the constraint with the fewest remaining
+	 * candidates.
+	 *
+	 * @return True once enough solutions have been found and the search should
+	 *         stop.
+	 */
+	private boolean search(int depth) {
+		if (right[ROOT] == ROOT) {
+			solutions++;
+			if (target != null) {
+				for (int i = 0; i < depth; i++) {
+					int cand = candidate[partial[i]];
+					target[cand / 81][(cand / 9) % 9] = cand % 9 + 1;
+				}
+			}
+			return solutions >= limit;
+		}
+
+		int c = right[ROOT];
+		for (int h = right[c]; h != ROOT; h = right[h]) {
+			if (size[h] < size[c]) {
+				c = h;
+			}
+		}
+		if (size[c] == 0) {
+			return false;
+		}
+
+		cover(c);
+		for (int r = down[c]; r != c; r = down[r]) {
+			partial[depth] = r;
+			for (int j = right[r]; j != r; j = right[j]) {
+				cover(column[j]);
+			}
+			boolean stop = search(depth + 1);
+			for (int j = left[r]; j != r; j = left[j]) {
+				uncover(column[j]);
+			}
+			if (stop) {
+				uncover(c);
+				return true;
+			}
+		}
+		uncover(c);
+		return false;
+	}
+
+	private void link(int n, int col, int cand) {
+		column[n] = col;
+		candidate[n] = cand;
+		up[n] = up[col];
+		down[n] = col;
+		down[up[col]] = n;
+		up[col] = n;
+		size[col]++;
+	}
+
+	private void cover(int c) {
+		right[left[c]] = right[c];
+		left[right[c]] = left[c];
+		for (int i = down[c]; i != c; i = down[i]) {
+			for (int j = right[i]; j != i; j = right[j]) {
+				down[up[j]] = down[j];
+				up[down[j]] = up[j];
+				size[column[j]]--;
+			}
+		}
+	}
+
+	private void uncover(int c) {
+		for (int i = up[c]; i != c; i = up[i]) {
+			for (int j = left[i]; j != i; j = left[j]) {
+				size[column[j]]++;
+				down[up[j]] = j;
+				up[down[j]] = j;
+			}
+		}
+		right[left[c]] = c;
+		left[right[c]] = c;
+	}
+}
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Sent to a game's observers, in place of the game itself, when its board
+ * becomes filled in and correct.
+ */
+public class GameCompletedEvent {
+
+	private final SudokuGame game;
+
+	public GameCompletedEvent(SudokuGame game) {
+		this.game = game;
+	}
+
+	/**
+	 * @return The game that was completed.
+	 */
+	public SudokuGame getGame() {
+		return game;
+	}
+}
@@ -0,0 +1,244 @@
+package model;
+
+import java.util.BitSet;
+
+/**
+ * The state of a game's board in flat arrays, indexed by row * 9 + column.
+ *
+ * Every change to a held value goes through {@link #set(int, int)}, which keeps
+ * a count of each digit in each row, column and block. Whether a value clashes
+ * with another cell is then a few lookups rather than a scan of its units, and
+ * the clashing cells can be listed by looking only at the units that have a
+ * repeated digit. Units are numbered rows 0-8, columns 9-17 and blocks 18-26.
+ *
+ * It also counts filled cells and, once it has been given the solution, cells
+ * that match the solution, so a solved board is noticed without a scan.
+ */
+final class Grid {
+
+	private final byte[] values = new byte[81];
+	// bit n set for candidate n
+	private final short[] candidates = new short[81];
+	private final BitSet givens = new BitSet(81);
+	// how many cells of unit u hold digit d, at u * 10 + d; digit 0 counts empties
+	private final byte[] counts = new byte[27 * 10];
+	// u * 10 + d for every unit holding digit d (1-9) more than once
+	private final BitSet repeats = new BitSet(27 * 10);
+	private byte[] solution;
+	private int filled;
+	private int correct;
+	// cells whose value, or candidates, changed since they were last taken
+	private final BitSet changedValues = new BitSet(81);
+	private final BitSet changedCandidates = new BitSet(81);
+
+	Grid() {
+		for (int u = 0; u < 27; u++) {
+			counts[u * 10] = 9;
+		}
+	}
+
+	int get(int i) {
+		return values[i];
+	}
+
+	/**
+	 * Changes a held value, given or not, and updates the unit counts.
+	 */
+	void set(int i, int n) {
+		int old = values[i];
+		if (old == n) {
+			return;
+		}
+		int row = i / 9, col = 9 + i % 9, block = block(i);
+		decrement(row, old);
+		decrement(col, old);
+		decrement(block, old);
+		increment(row, n);
+		increment(col, n);
+		increment(block, n);
+		values[i] = (byte) n;
+		changedValues.set(i);
+		filled += (n != 0 ? 1 : 0) - (old != 0 ? 1 : 0);
+		if (solution != null) {
+			correct += (n == solution[i] ? 1 : 0) - (old == solution[i] ? 1 : 0);
+		}
+	}
+
+	boolean hasSolution() {
+		return solution != null;
+	}
+
+	/**
+	 * Gives the grid the solution, and counts the cells that already match it.
+	 */
+	void setSolution(int[][] board) {
+		solution = new byte[81];
+		correct = 0;
+		for (int i = 0; i < 81; i++) {
+			solution[i] = (byte) board[i / 9][i % 9];
+			if (values[i] == solution[i]) {
+				correct++;
+			}
+		}
+	}
+
+	/**
+	 * @return How many cells hold a value.
+	 */
+	int filled() {
+		return filled;
+	}
+
+	/**
+	 * @return How many cells hold their solution value, or 0 before the solution
+	 *         is set.
+	 */
+	int correct() {
+		return correct;
+	}
+
+	boolean isGiven(int i) {
+		return givens.get(i);
+	}
+
+	/**
+	 * Makes cell i an initial cell holding n. Givens are the starting board
+	 * rather than a change to it, so the cell isn't marked as changed.
+	 */
+	void setGiven(int i, int n) {
+		set(i, n);
+		givens.set(i);
+		changedValues.clear(i);
+	}
+
+	/**
+	 * Empties every cell that isn't an initial cell and clears all candidates.
+	 */
+	void clearMoves() {
+		for (int i = 0; i < 81; i++) {
+			if (!givens.get(i)) {
+				set(i, 0);
+			}
+			setCandidates(i, 0);
+		}
+	}
+
+	/**
+	 * @return Every cell's value and candidates, packed as value | mask << 4.
+	 */
+	short[] snapshot() {
+		short[] cells = new short[81];
+		for (int i = 0; i < 81; i++) {
+			cells[i] = (short) (values[i] | candidates[i] << 4);
+		}
+		return cells;
+	}
+
+	/**
+	 * Puts the board back to a snapshot of it.
+	 */
+	void restore(short[] cells) {
+		for (int i = 0; i < 81; i++) {
+			set(i, cells[i] & 0xF);
+			setCandidates(i, cells[i] >>> 4);
+		}
+	}
+
+	int getCandidates(int i) {
+		return candidates[i];
+	}
+
+	void setCandidates(int i, int mask) {
+		if (candidates[i] != mask) {
+			candidates[i] = (short) mask;
+			changedCandidates.set(i);
+		}
+	}
+
+	/**
+	 * @return The cells whose value changed since the last call.
+	 */
+	BitSet takeValueChanges() {
+		return take(changedValues);
+	}
+
+	/**
+	 * @return The cells whose candidates changed since the last call.
+	 */
+	BitSet takeCandidateChanges() {
+		return take(changedCandidates);
+	}
+
+	/**
+	 * Forgets which cells have changed.
+	 */
+	void clearChanges() {
+		changedValues.clear();
+		changedCandidates.clear();
+	}
+
+	private static BitSet take(BitSet changed) {
+		BitSet cells = (BitSet) changed.clone();
+		changed.clear();
+		return cells;
+	}
+
+	/**
+	 * @return True if no other cell in cell i's row, column or block holds val.
+	 */
+	boolean isValid(int i, int val) {
+		if (val < 0 || val > 9) {
+			return true;
+		}
+		int self = values[i] == val ? 1 : 0;
+		return counts[(i / 9) * 10 + val] == self && counts[(9 + i % 9) * 10 + val] == self
+				&& counts[block(i) * 10 + val] == self;
+	}
+
+	/**
+	 * @return The cells whose value is repeated elsewhere in one of their units.
+	 */
+	BitSet conflicts() {
+		BitSet cells = new BitSet(81);
+		for (int k = repeats.nextSetBit(0); k >= 0; k = repeats.nextSetBit(k + 1)) {
+			int unit = k / 10, digit = k % 10;
+			for (int j = 0; j < 9; j++) {
+				int i = cellOf(unit, j);
+				if (values[i] == digit) {
+					cells.set(i);
+				}
+			}
+		}
+		return cells;
+	}
+
+	private void increment(int unit, int digit) {
+		if (++counts[unit * 10 + digit] == 2 && digit != 0) {
+			repeats.set(unit * 10 + digit);
+		}
+	}
+
+	private void decrement(int unit, int digit) {
+		if (--counts[unit * 10 + digit] == 1 && digit != 0) {
+			repeats.clear(unit * 10 + digit);
+		}
+	}
+
+	private static int block(int i) {
+		return 18 + (i / 27) * 3 + (i % 9) / 3;
+	}
+
+	/**
+	 * @return The index of the j-th cell of a unit.
+	 */
+	private static int cellOf(int unit, int j) {
+		if (unit < 9) {
+			return unit * 9 + j;
+		}
+		if (unit < 18) {
+			return j * 9 + unit - 9;
+		}
+		int b = unit - 18;
+		return ((b / 3) * 3 + j / 3) * 9 + (b % 3) * 3 + j % 3;
+	}
+}
@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * One move from a game's history, unpacked from its {@link MoveLog} record when
+ * asked for. It only describes the move; undoing and redoing are left to the
+ * game.
+ */
+public final class Move {
+
+	public enum Type {
+		SET_VALUE, ERASE_VALUE, ADD_CANDIDATE, CLEAR_CANDIDATES, TOGGLE_CANDIDATE
+	}
+
+	private final long move;
+
+	Move(long move) {
+		this.move = move;
+	}
+
+	public Type getType() {
+		return Type.values()[MoveLog.type(move)];
+	}
+
+	public int getRow() {
+		return MoveLog.cell(move) / 9;
+	}
+
+	public int getColumn() {
+		return MoveLog.cell(move) % 9;
+	}
+
+	public int getOldValue() {
+		return MoveLog.oldValue(move);
+	}
+
+	public int getNewValue() {
+		return MoveLog.newValue(move);
+	}
+
+	/**
+	 * @return The cell's candidates before the move, bit n set for candidate n.
+	 */
+	public int getOldCandidates() {
+		return MoveLog.oldMask(move);
+	}
+
+	/**
+	 * @return The cell's candidates after the move, bit n set for candidate n.
+	 */
+	public int getNewCandidates() {
+		return MoveLog.newMask(move);
+	}
+
+	/**
+	 * @return True if the move was made in the same batch as the move before it,
+	 *         and is undone and redone along with it.
+	 */
+	public boolean isJoined() {
+		return MoveLog.joined(move);
+	}
+}
@@ -0,0 +1,203 @@
+package model;
+
+/**
+ * A game's move history, one long per move in a ring buffer that grows as
+ * needed. Moves from the oldest up to the cursor have been made; moves after
+ * the cursor were undone and can be redone until a new move is pushed.
+ *
+ * A record packs, from the low bits: cell index (7 bits), move type (3), old
+ * value (4), new value (4), old candidate mask (10), new candidate mask (10) and
+ * a flag (1) set when the move was made in the same batch as the one before
+ * it, so the two are undone and redone together. Pushing a move allocates
+ * nothing unless the ring has to grow.
+ *
+ * Moves are numbered from the first one made, so a move keeps its number when
+ * older moves are dropped to stay under the limit.
+ */
+final class MoveLog {
+
+	static final int SET_VALUE = 0;
+	static final int ERASE_VALUE = 1;
+	static final int ADD_CANDIDATE = 2;
+	static final int CLEAR_CANDIDATES = 3;
+	static final int TOGGLE_CANDIDATE = 4;
+
+	private long[] ring = new long[64];
+	// ring index of the oldest record
+	private int start;
+	// number of the oldest record
+	private int first;
+	// records held, made and undone
+	private int size;
+	// records made; the rest can be redone
+	private int cursor;
+	// most made records to keep, or 0 for no limit
+	private int limit;
+
+	static long pack(int type, int cell, int oldValue, int newValue, int oldMask, int newMask, boolean joined) {
+		return cell | type << 7 | oldValue << 10 | newValue << 14 | (long) oldMask << 18 | (long) newMask << 28
+				| (joined ? 1L << 38 : 0);
+	}
+
+	static int cell(long move) {
+		return (int) move & 0x7F;
+	}
+
+	static int type(long move) {
+		return (int) (move >>> 7) & 0x7;
+	}
+
+	static int oldValue(long move) {
+		return (int) (move >>> 10) & 0xF;
+	}
+
+	static int newValue(long move) {
+		return (int) (move >>> 14) & 0xF;
+	}
+
+	static int oldMask(long move) {
+		return (int) (move >>> 18) & 0x3FF;
+	}
+
+	static int newMask(long move) {
+		return (int) (move >>> 28) & 0x3FF;
+	}
+
+	/**
+	 * @return True if the move belongs with the move before it.
+	 */
+	static boolean joined(long move) {
+		return (move >>> 38 & 1) != 0;
+	}
+
+	/**
+	 * Records a move that was just made, forgetting anything that could have been
+	 * redone, and the oldest move if the log is at its limit.
+	 */
+	void push(long move) {
+		size = cursor;
+		if (limit > 0 && cursor == limit) {
+			start = (start + 1) % ring.length;
+			first++;
+			size--;
+			cursor--;
+		}
+		if (size == ring.length) {
+			grow();
+		}
+		ring[(start + size) % ring.length] = move;
+		size++;
+		cursor++;
+	}
+
+	boolean canUndo() {
+		return cursor > 0;
+	}
+
+	boolean canRedo() {
+		return cursor < size;
+	}
+
+	/**
+	 * Steps the cursor back over the last move made.
+	 *
+	 * @return That move.
+	 */
+	long undo() {
+		cursor--;
+		return get(cursor);
+	}
+
+	/**
+	 * Steps the cursor forward over the next undone move.
+	 *
+	 * @return That move.
+	 */
+	long redo() {
+		cursor++;
+		return get(cursor - 1);
+	}
+
+	/**
+	 * @return How many moves have been made and not undone.
+	 */
+	int made() {
+		return cursor;
+	}
+
+	/**
+	 * @return How many moves are kept, made or undone.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of the oldest move kept.
+	 */
+	int first() {
+		return first;
+	}
+
+	/**
+	 * Marks the first n kept moves as made and the rest as undone, for when the
+	 * board has been brought to that point some other way.
+	 */
+	void setCursor(int n) {
+		cursor = n;
+	}
+
+	/**
+	 * Forgets every move numbered n or later, made or undone, so the next move
+	 * pushed is number n. If the limit already dropped moves before n, the moves
+	 * still kept are all forgotten and numbering carries on from n.
+	 */
+	void truncate(int n) {
+		if (n < first) {
+			first = n;
+			cursor = 0;
+		} else {
+			cursor = n - first;
+		}
+		size = cursor;
+	}
+
+	/**
+	 * @return Move n, counting from the oldest one kept.
+	 */
+	long get(int n) {
+		return ring[(start + n) % ring.length];
+	}
+
+	void clear() {
+		start = 0;
+		first = 0;
+		size = 0;
+		cursor = 0;
+	}
+
+	/**
+	 * Sets how many made moves are kept, forgetting the oldest ones beyond it.
+	 *
+	 * @param limit Most moves to keep, or 0 to keep them all.
+	 */
+	void setLimit(int limit) {
+		this.limit = limit;
+		if (limit > 0 && cursor > limit) {
+			int drop = cursor - limit;
+			start = (start + drop) % ring.length;
+			first += drop;
+			size -= drop;
+			cursor -= drop;
+		}
+	}
+
+	private void grow() {
+		long[] bigger = new long[ring.length * 2];
+		for (int n = 0; n < size; n++) {
+			bigger[n] = get(n);
+		}
+		ring = bigger;
+		start = 0;
+	}
+}
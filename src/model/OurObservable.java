@@ -1,24 +1,82 @@
 /**
  * A simple observable class use to notify observers of any state change in the
  * the observable. The observable class must extend this class OurObserverable.
- * 
+ *
+ * Observers can be held strongly or weakly. A weakly held observer doesn't keep
+ * itself alive: once nothing else refers to it, it is dropped the next time
+ * observers are notified. An observer may add or remove observers, including
+ * itself, while it is being notified.
+ *
  * @author Rick Mercer
  *
  */
 package model;
 
-import java.util.ArrayList;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class OurObservable {
-	ArrayList<OurObserver> observers = new ArrayList<>();
+	private final CopyOnWriteArrayList<Subscription> observers = new CopyOnWriteArrayList<>();
 
 	public void addObserver(OurObserver anObserver) {
-		observers.add(anObserver);
+		observers.add(new Subscription(anObserver, false));
+	}
+
+	/**
+	 * Adds an observer without keeping it alive. Don't pass a lambda that nothing
+	 * else holds on to, as it can be dropped straight away.
+	 */
+	public void addWeakObserver(OurObserver anObserver) {
+		observers.add(new Subscription(anObserver, true));
+	}
+
+	/**
+	 * Adds an observer that is only told about events of one type.
+	 *
+	 * @param type    Class of the events wanted, such as BoardChangedEvent.
+	 * @param handler Called with each such event.
+	 * @return The observer added, to pass to {@link #removeObserver}.
+	 */
+	public <E> OurObserver addObserver(Class<E> type, Consumer<? super E> handler) {
+		OurObserver observer = event -> {
+			if (type.isInstance(event)) {
+				handler.accept(type.cast(event));
+			}
+		};
+		addObserver(observer);
+		return observer;
+	}
+
+	/**
+	 * Removes every registration of an observer, strong or weak.
+	 */
+	public void removeObserver(OurObserver anObserver) {
+		observers.removeIf(s -> s.get() == anObserver);
+	}
+
+	public void notifyObservers(Object theObservable) {
+		for (Subscription s : observers) {
+			OurObserver obs = s.get();
+			if (obs == null) {
+				observers.remove(s);
+			} else {
+				obs.update(theObservable);
+			}
+		}
 	}
 
-	public void notifyObservers(OurObservable theObservable) {
-		for (OurObserver obs : observers) {
-			obs.update(theObservable);
+	private static final class Subscription {
+		private final OurObserver strong;
+		private final WeakReference<OurObserver> weak;
+
+		Subscription(OurObserver observer, boolean weakly) {
+			strong = weakly ? null : observer;
+			weak = weakly ? new WeakReference<>(observer) : null;
+		}
+
+		OurObserver get() {
+			return strong != null ? strong : weak.get();
 		}
 	}
 }
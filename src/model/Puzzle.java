@@ -0,0 +1,111 @@
+package model;
+
+/**
+ * An immutable Sudoku puzzle: its givens, its full solution and where it came
+ * from. Produced by {@link RandomBoardGenerator} so a game can start without
+ * solving the board again.
+ */
+public final class Puzzle {
+
+	private final int[][] givens;
+	private final int[][] solution;
+	private final String difficulty;
+	private final int clueCount;
+	private final boolean seeded;
+	private final long seed;
+
+	/**
+	 * Constructs a puzzle that wasn't generated from a seed.
+	 *
+	 * @param givens     Starting board, 0 for empty cells. Copied.
+	 * @param solution   Full solution of the board. Copied.
+	 * @param difficulty "EASY", "MEDIUM" or "HARD".
+	 */
+	public Puzzle(int[][] givens, int[][] solution, String difficulty) {
+		this(givens, solution, difficulty, false, 0);
+	}
+
+	/**
+	 * Constructs a puzzle generated from a seed.
+	 *
+	 * @param givens     Starting board, 0 for empty cells. Copied.
+	 * @param solution   Full solution of the board. Copied.
+	 * @param difficulty "EASY", "MEDIUM" or "HARD".
+	 * @param seed       Seed that regenerates this puzzle.
+	 */
+	public Puzzle(int[][] givens, int[][] solution, String difficulty, long seed) {
+		this(givens, solution, difficulty, true, seed);
+	}
+
+	private Puzzle(int[][] givens, int[][] solution, String difficulty, boolean seeded, long seed) {
+		this.givens = copy(givens);
+		this.solution = copy(solution);
+		this.difficulty = difficulty.toUpperCase();
+		this.seeded = seeded;
+		this.seed = seed;
+		int clues = 0;
+		for (int[] row : givens) {
+			for (int n : row) {
+				if (n != 0) {
+					clues++;
+				}
+			}
+		}
+		clueCount = clues;
+	}
+
+	/**
+	 * @return The given at a cell, or 0 if it starts empty.
+	 */
+	public int getGiven(int row, int col) {
+		return givens[row][col];
+	}
+
+	/**
+	 * @return The solution value at a cell.
+	 */
+	public int getSolution(int row, int col) {
+		return solution[row][col];
+	}
+
+	/**
+	 * @return A copy of the starting board.
+	 */
+	public int[][] getGivens() {
+		return copy(givens);
+	}
+
+	/**
+	 * @return A copy of the solution board.
+	 */
+	public int[][] getSolution() {
+		return copy(solution);
+	}
+
+	public String getDifficulty() {
+		return difficulty;
+	}
+
+	public int getClueCount() {
+		return clueCount;
+	}
+
+	/**
+	 * @return True if {@link #getSeed()} regenerates this puzzle.
+	 */
+	public boolean hasSeed() {
+		return seeded;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	private static int[][] copy(int[][] board) {
+		int[][] copy = new int[9][];
+		for (int r = 0; r < 9; r++) {
+			copy[r] = board[r].clone();
+		}
+		return copy;
+	}
+}
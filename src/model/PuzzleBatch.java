@@ -0,0 +1,123 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates many puzzles of one difficulty in parallel on a fork-join pool, for
+ * building puzzle packs.
+ *
+ * Every puzzle gets its own seed, drawn off a {@link SplittableRandom} seeded
+ * with the batch seed up front, and its generator shuffles with its own
+ * SplittableRandom. Puzzle i is therefore the same no matter how many threads
+ * run the batch or in what order the tasks finish, and can be regenerated alone
+ * from {@link #getSeed(int)}.
+ */
+public class PuzzleBatch {
+
+	// below this many puzzles a task stops forking and generates them itself
+	private static final int SEQUENTIAL_THRESHOLD = 4;
+
+	private final String difficulty;
+	private final long[] seeds;
+
+	/**
+	 * @param difficulty Difficulty of every puzzle, as for RandomBoardGenerator.
+	 * @param count      How many puzzles to generate.
+	 * @param seed       Seed the whole batch is reproducible from.
+	 */
+	public PuzzleBatch(String difficulty, int count, long seed) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count must not be negative");
+		}
+		this.difficulty = difficulty;
+		seeds = new long[count];
+		SplittableRandom root = new SplittableRandom(seed);
+		for (int i = 0; i < count; i++) {
+			seeds[i] = root.nextLong();
+		}
+	}
+
+	public int size() {
+		return seeds.length;
+	}
+
+	/**
+	 * @return The seed puzzle i is generated from.
+	 */
+	public long getSeed(int i) {
+		return seeds[i];
+	}
+
+	/**
+	 * Generates the batch on the common fork-join pool.
+	 *
+	 * @return The puzzles, in batch order.
+	 */
+	public List<Puzzle> generate() {
+		return generate(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Generates the batch on the given pool and waits for it to finish.
+	 *
+	 * @param pool Pool to run the generation tasks on.
+	 * @return The puzzles, in batch order.
+	 */
+	public List<Puzzle> generate(ForkJoinPool pool) {
+		Puzzle[] puzzles = new Puzzle[seeds.length];
+		pool.invoke(new GenerateTask(puzzles, 0, seeds.length));
+		return Arrays.asList(puzzles);
+	}
+
+	/**
+	 * Streams the batch. The stream is parallel and ordered, so puzzles are
+	 * generated as they are consumed but still come out in batch order unless
+	 * the caller asks for unordered processing.
+	 *
+	 * @return The puzzles, in batch order.
+	 */
+	public Stream<Puzzle> stream() {
+		return IntStream.range(0, seeds.length).parallel().mapToObj(i -> generatePuzzle(i, new BitmaskSolver()));
+	}
+
+	private Puzzle generatePuzzle(int i, SudokuSolver solver) {
+		return new RandomBoardGenerator(difficulty, solver, seeds[i]).getPuzzle();
+	}
+
+	/**
+	 * Splits the index range in half until it is small enough, then generates
+	 * that range with one reused solver.
+	 */
+	private class GenerateTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Puzzle[] puzzles;
+		private final int from, to;
+
+		GenerateTask(Puzzle[] puzzles, int from, int to) {
+			this.puzzles = puzzles;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				SudokuSolver solver = new BitmaskSolver();
+				for (int i = from; i < to; i++) {
+					puzzles[i] = generatePuzzle(i, solver);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new GenerateTask(puzzles, from, mid), new GenerateTask(puzzles, mid, to));
+		}
+	}
+}
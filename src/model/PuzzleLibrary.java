@@ -0,0 +1,214 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only library of puzzles stored in a binary file of fixed-size
+ * records, read through a memory-mapped buffer. Opening a library only maps
+ * the file, and puzzle i is found by offset, so libraries with millions of
+ * puzzles open instantly and nothing is parsed until a cell is read.
+ *
+ * File layout, big-endian:
+ *
+ * <pre>
+ * header   magic "SDKL" (4 bytes), version (2), record size (2), count (4)
+ * record   difficulty (1), clue count (1), 81 cell bytes
+ * </pre>
+ *
+ * Each cell byte holds the given in its high 4 bits (0 if empty) and the
+ * solution in its low 4 bits, cells in row-major order. Difficulty is 0 for
+ * EASY, 1 for MEDIUM and 2 for HARD.
+ */
+public class PuzzleLibrary implements Closeable {
+
+	private static final int MAGIC = 0x53444B4C;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 12;
+	private static final int RECORD_SIZE = 2 + 81;
+	// the difficulty stored as code i; part of the file format, so never reordered
+	private static final String[] DIFFICULTY_CODES = { "EASY", "MEDIUM", "HARD" };
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int count;
+
+	private PuzzleLibrary(FileChannel channel, MappedByteBuffer buffer, int count) {
+		this.channel = channel;
+		this.buffer = buffer;
+		this.count = count;
+	}
+
+	/**
+	 * Maps a library file for reading.
+	 *
+	 * @param file Library written by {@link Writer}.
+	 * @return The opened library.
+	 * @throws IOException If the file can't be read or isn't a library.
+	 */
+	public static PuzzleLibrary open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				throw new IOException("Not a puzzle library: " + file);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			buffer.order(ByteOrder.BIG_ENDIAN);
+			int count = buffer.getInt(8);
+			if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || buffer.getShort(6) != RECORD_SIZE
+					|| count < 0 || HEADER_SIZE + (long) count * RECORD_SIZE > length) {
+				throw new IOException("Not a puzzle library: " + file);
+			}
+			return new PuzzleLibrary(channel, buffer, count);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return How many puzzles are in the library.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @return EASY, MEDIUM or HARD.
+	 * @throws IOException If the record holds an unknown difficulty code.
+	 */
+	public String getDifficulty(int index) throws IOException {
+		int code = buffer.get(offset(index)) & 0xFF;
+		if (code >= DIFFICULTY_CODES.length) {
+			throw new IOException("Puzzle " + index + " has unknown difficulty code " + code);
+		}
+		return DIFFICULTY_CODES[code];
+	}
+
+	public int getClueCount(int index) {
+		return buffer.get(offset(index) + 1) & 0xFF;
+	}
+
+	/**
+	 * @return The given at a cell of puzzle index, or 0 if the cell starts empty.
+	 */
+	public int getGiven(int index, int row, int col) {
+		return (cellByte(index, row, col) >> 4) & 0xF;
+	}
+
+	/**
+	 * @return The solution value at a cell of puzzle index.
+	 */
+	public int getSolution(int index, int row, int col) {
+		return cellByte(index, row, col) & 0xF;
+	}
+
+	/**
+	 * Copies puzzle index out of the file.
+	 *
+	 * @return The puzzle with its solution.
+	 * @throws IOException If the record holds an unknown difficulty code, a
+	 *                     value outside 0-9, an empty solution cell or a given
+	 *                     that differs from its solution.
+	 */
+	public Puzzle get(int index) throws IOException {
+		int[][] givens = new int[9][9];
+		int[][] solution = new int[9][9];
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				int given = getGiven(index, r, c);
+				int value = getSolution(index, r, c);
+				if (given > 9 || value < 1 || value > 9 || given != 0 && given != value) {
+					throw new IOException("Puzzle " + index + " has a bad cell at row " + r + ", column " + c);
+				}
+				givens[r][c] = given;
+				solution[r][c] = value;
+			}
+		}
+		return new Puzzle(givens, solution, getDifficulty(index));
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private int cellByte(int index, int row, int col) {
+		if (row < 0 || row >= 9 || col < 0 || col >= 9) {
+			throw new IllegalArgumentException("No cell at row " + row + ", column " + col);
+		}
+		return buffer.get(offset(index) + 2 + row * 9 + col);
+	}
+
+	private int offset(int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+		}
+		return HEADER_SIZE + index * RECORD_SIZE;
+	}
+
+	/**
+	 * Writes a library file one puzzle at a time. The count in the header is
+	 * filled in when the writer is closed.
+	 */
+	public static class Writer implements Closeable {
+
+		private final Path file;
+		private final DataOutputStream out;
+		private final byte[] record = new byte[RECORD_SIZE];
+		private int count;
+
+		/**
+		 * Creates or truncates the file and writes the header.
+		 */
+		public Writer(Path file) throws IOException {
+			this.file = file;
+			out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeShort(RECORD_SIZE);
+			out.writeInt(0);
+		}
+
+		/**
+		 * Appends a puzzle.
+		 *
+		 * @param puzzle An EASY, MEDIUM or HARD puzzle.
+		 */
+		public void add(Puzzle puzzle) throws IOException {
+			int code = Arrays.asList(DIFFICULTY_CODES).indexOf(puzzle.getDifficulty());
+			if (code < 0) {
+				throw new IllegalArgumentException("Unknown difficulty: " + puzzle.getDifficulty());
+			}
+			for (int r = 0; r < 9; r++) {
+				for (int c = 0; c < 9; c++) {
+					record[2 + r * 9 + c] = (byte) (puzzle.getGiven(r, c) << 4 | puzzle.getSolution(r, c));
+				}
+			}
+			record[0] = (byte) code;
+			record[1] = (byte) puzzle.getClueCount();
+			out.write(record);
+			count++;
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+			try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+				raf.seek(8);
+				raf.writeInt(count);
+			}
+		}
+	}
+}
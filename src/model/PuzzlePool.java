@@ -0,0 +1,186 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a few generated puzzles ready for each difficulty so a new game doesn't
+ * have to wait on {@link RandomBoardGenerator}. Background worker threads top
+ * the pool back up whenever a puzzle is taken.
+ *
+ * Hit, miss and refill timing counters are kept so the pool can be sized.
+ */
+public class PuzzlePool {
+
+	public static final String[] DIFFICULTIES = { "EASY", "MEDIUM", "HARD" };
+
+	private final int capacity;
+	private final Map<String, BlockingQueue<Puzzle>> ready = new HashMap<>();
+	private final Map<String, AtomicInteger> inFlight = new HashMap<>();
+	private final ExecutorService workers;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong refills = new AtomicLong();
+	private final AtomicLong refillNanos = new AtomicLong();
+	private final AtomicLong maxRefillNanos = new AtomicLong();
+
+	/**
+	 * Constructs a pool holding up to 4 puzzles per difficulty, refilled by a
+	 * single worker thread.
+	 */
+	public PuzzlePool() {
+		this(4, 1);
+	}
+
+	/**
+	 * Constructs a pool and starts filling it in the background.
+	 *
+	 * @param capacity How many ready puzzles to keep per difficulty.
+	 * @param threads  How many worker threads generate puzzles.
+	 */
+	public PuzzlePool(int capacity, int threads) {
+		if (capacity < 1 || threads < 1) {
+			throw new IllegalArgumentException("capacity and threads must be at least 1");
+		}
+		this.capacity = capacity;
+		workers = Executors.newFixedThreadPool(threads, task -> {
+			Thread thread = new Thread(task, "puzzle-pool");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		for (String difficulty : DIFFICULTIES) {
+			ready.put(difficulty, new ArrayBlockingQueue<>(capacity));
+			inFlight.put(difficulty, new AtomicInteger());
+		}
+		for (String difficulty : DIFFICULTIES) {
+			refill(difficulty);
+		}
+	}
+
+	/**
+	 * Takes a ready puzzle without blocking, and schedules a replacement.
+	 *
+	 * @param difficulty "EASY", "MEDIUM" or "HARD", in any case.
+	 * @return A generated puzzle, or null if none is ready or the difficulty isn't
+	 *         pooled.
+	 */
+	public Puzzle poll(String difficulty) {
+		String d = difficulty.toUpperCase();
+		BlockingQueue<Puzzle> queue = ready.get(d);
+		if (queue == null) {
+			return null;
+		}
+		Puzzle puzzle = queue.poll();
+		if (puzzle == null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		refill(d);
+		return puzzle;
+	}
+
+	/**
+	 * Stops the worker threads. Puzzles already in the pool can still be polled.
+	 */
+	public void shutdown() {
+		workers.shutdownNow();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return How many puzzles are ready for the given difficulty.
+	 */
+	public int getReadyCount(String difficulty) {
+		BlockingQueue<Puzzle> queue = ready.get(difficulty.toUpperCase());
+		return queue == null ? 0 : queue.size();
+	}
+
+	/**
+	 * @return How many polls were answered with a ready puzzle.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return How many polls found the pool empty for their difficulty.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return How many puzzles the workers have generated.
+	 */
+	public long getRefills() {
+		return refills.get();
+	}
+
+	/**
+	 * @return Average time a worker took to generate one puzzle, in milliseconds.
+	 */
+	public double getAverageRefillMillis() {
+		long n = refills.get();
+		return n == 0 ? 0 : refillNanos.get() / 1e6 / n;
+	}
+
+	/**
+	 * @return Longest time a worker took to generate one puzzle, in milliseconds.
+	 */
+	public double getMaxRefillMillis() {
+		return maxRefillNanos.get() / 1e6;
+	}
+
+	/**
+	 * Schedules enough generation tasks that ready plus in-flight puzzles reach
+	 * the capacity.
+	 */
+	private void refill(String difficulty) {
+		BlockingQueue<Puzzle> queue = ready.get(difficulty);
+		AtomicInteger pending = inFlight.get(difficulty);
+		while (true) {
+			int p = pending.get();
+			if (queue.size() + p >= capacity) {
+				return;
+			}
+			if (pending.compareAndSet(p, p + 1)) {
+				try {
+					workers.execute(() -> generate(difficulty));
+				} catch (RejectedExecutionException e) {
+					pending.decrementAndGet();
+					return;
+				}
+			}
+		}
+	}
+
+	private void generate(String difficulty) {
+		try {
+			long start = System.nanoTime();
+			Puzzle puzzle = new RandomBoardGenerator(difficulty).getPuzzle();
+			long elapsed = System.nanoTime() - start;
+			refills.incrementAndGet();
+			refillNanos.addAndGet(elapsed);
+			maxRefillNanos.accumulateAndGet(elapsed, Math::max);
+			ready.get(difficulty).offer(puzzle);
+		} catch (CancellationException e) {
+			// interrupted by shutdown, nothing to report
+		} finally {
+			inFlight.get(difficulty).decrementAndGet();
+		}
+	}
+}
@@ -1,8 +1,9 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -14,7 +15,10 @@ import java.util.concurrent.ThreadLocalRandom;
 public class RandomBoardGenerator {
 
 	private int board[][];
-	private int boardSol[][];
+	private SudokuSolver solver;
+	private SplittableRandom random;
+	private long seed;
+	private Puzzle puzzle;
 
 	/**
 	 * Constructs the premade board, randomizes it.
@@ -24,6 +28,45 @@ public class RandomBoardGenerator {
 	 *                   our purposes.
 	 */
 	public RandomBoardGenerator(String difficulty) {
+		this(difficulty, new BitmaskSolver());
+	}
+
+	/**
+	 * Constructs the premade board, randomizes it from the given seed. The same
+	 * difficulty and seed always give the same board, on any machine.
+	 * 
+	 * @param difficulty Defines how many cells will be removed.
+	 * @param seed       Seed for every shuffle made while generating.
+	 */
+	public RandomBoardGenerator(String difficulty, long seed) {
+		this(difficulty, new BitmaskSolver(), seed);
+	}
+
+	/**
+	 * Constructs the premade board, randomizes it, using the given solver to check
+	 * that the puzzle keeps a unique solution as cells are removed.
+	 * 
+	 * @param difficulty Defines how many cells will be removed.
+	 * @param solver     Backend used for the uniqueness checks.
+	 */
+	public RandomBoardGenerator(String difficulty, SudokuSolver solver) {
+		this(difficulty, solver, ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Constructs the premade board, randomizes it from the given seed, using the
+	 * given solver for the uniqueness checks. The solver doesn't affect the result.
+	 * Stops early if the thread is interrupted while cells are being removed.
+	 * 
+	 * @param difficulty Defines how many cells will be removed.
+	 * @param solver     Backend used for the uniqueness checks.
+	 * @param seed       Seed for every shuffle made while generating.
+	 * @throws CancellationException If the thread was interrupted.
+	 */
+	public RandomBoardGenerator(String difficulty, SudokuSolver solver, long seed) {
+		this.solver = solver;
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
 		board = new int[][] { 
 			{ 1, 2, 3, 4, 5, 6, 7, 8, 9 }, 
 			{ 4, 5, 6, 7, 8, 9, 1, 2, 3 },
@@ -36,13 +79,35 @@ public class RandomBoardGenerator {
 			{ 9, 7, 8, 3, 1, 2, 6, 4, 5 } 
 		};
 		randomize();
+		// the randomized grid is the solution to whatever is left after removal
+		int[][] solution = new int[9][];
+		for (int r = 0; r < 9; r++) {
+			solution[r] = board[r].clone();
+		}
 		removeCells(difficulty);
+		puzzle = new Puzzle(board, solution, difficulty, seed);
 	}
 
 	public int[][] getBoard() {
 		return board;
 	}
 
+	/**
+	 * @return The generated puzzle together with its solution, so it doesn't need
+	 *         to be solved again.
+	 */
+	public Puzzle getPuzzle() {
+		return puzzle;
+	}
+
+	/**
+	 * @return The seed this board was generated from. Passing it back in with the
+	 *         same difficulty regenerates the same board.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
 	public void printBoard() {
 		for (int r = 0; r < 9; r++) {
 			if (r != 0 && r % 3 == 0) {
@@ -79,7 +144,7 @@ public class RandomBoardGenerator {
 	 */
 	private void removeCells(String difficulty) {
 		ArrayList<int[]> positions = getPositions();
-		Collections.shuffle(positions);
+		shufflePositions(positions);
 
 		// how many fewer cells will be removed at max on a specified difficulty
 		int modEasy = 32;
@@ -92,8 +157,15 @@ public class RandomBoardGenerator {
 			n -= modEasy;
 		}
 
+		// the solver keeps the board loaded and is told of each change, rather
+		// than reading the whole board again for every check
+		solver.load(board);
+
 		// removes a max of n cells from the board
 		while (n > 0) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException("Board generation was interrupted");
+			}
 			int[] pos = positions.remove(positions.size() - 1);
 			int row = pos[0];
 			int col = pos[1];
@@ -101,65 +173,19 @@ public class RandomBoardGenerator {
 			int val = board[row][col];
 
 			board[row][col] = 0;
+			solver.remove(row, col, val);
 
-			// so that the solution board is modified, not the original board
-			deepCopyBoardToSol();
-
-			// if there's >1 solution, tries a different position
-			if (solve(boardSol, 0, 0, 0) > 1) {
+			// the full grid is still a solution, so there's >1 solution only if
+			// some other digit fits here. if so, tries a different position
+			if (solver.hasSolutionExcluding(row, col, val)) {
 				board[row][col] = val;
+				solver.place(row, col, val);
 			}
 
 			n--;
 		}
 	}
 
-	/**
-	 * Finds whether a Sudoku puzzle has >1 solution. Only cares if count is >= 2,
-	 * doesn't care about how many specific solutions. Modified version of the
-	 * algorithm by fabian at
-	 * https://stackoverflow.com/questions/24343214/determine-whether-a-sudoku-has-a-unique-solution
-	 * 
-	 * @param board 2D int array representing the board.
-	 * @param row
-	 * @param col
-	 * @param count How many solutions.
-	 * @return
-	 */
-	private int solve(int[][] board, int row, int col, int count /* initailly called with 0 */) {
-		if (row == 9) {
-			row = 0;
-			if (++col == 9)
-				return 1 + count;
-		}
-		if (board[row][col] != 0) // skip filled cells
-			return solve(board, row + 1, col, count);
-		// search for 2 solutions instead of 1
-		// break, if 2 solutions are found
-		for (int n = 1; n <= 9 && count < 2; ++n) {
-			if (cellIsValid(board, row, col, n)) {
-				board[row][col] = n;
-				// add additional solutions
-				count = solve(board, row + 1, col, count);
-			}
-		}
-		board[row][col] = 0; // reset on backtrack
-		return count;
-	}
-
-	/**
-	 * Checks if a specified cell is valid for the given value.
-	 * 
-	 * @param board Sudoku board.
-	 * @param row   Specified row.
-	 * @param col   Specified column.
-	 * @param n     Value being checked.
-	 * @return True if valid.
-	 */
-	private boolean cellIsValid(int[][] board, int row, int col, int n) {
-		return (rowIsValid(board, col, n) && colIsValid(board, row, n) && blockIsValid(board, row, col, n));
-	}
-
 	/**
 	 * Gets an ArrayList of row, col coordinate pairs, representing every space on
 	 * the board.
@@ -176,64 +202,18 @@ public class RandomBoardGenerator {
 	}
 
 	/**
-	 * Checks if a specified row is valid for the given column and value.
-	 * 
-	 * @param board Sudoku board.
-	 * @param col   Specified column.
-	 * @param n     Value being checked.
-	 * @return True if valid.
-	 */
-	private boolean rowIsValid(int[][] board, int col, int n) {
-		for (int r = 0; r < 9; r++) {
-			if (board[r][col] == n) {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	/**
-	 * Checks if a specified column is valid for the given row and value.
-	 * 
-	 * @param board Sudoku board.
-	 * @param row   Specified row.
-	 * @param n     Value being checked.
-	 * @return True if valid.
-	 */
-	private boolean colIsValid(int[][] board, int row, int n) {
-		for (int c = 0; c < 9; c++) {
-			if (board[row][c] == n) {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	/**
-	 * Checks if a specified 3x3 block on the board is valid for the given value.
-	 * 
-	 * @param board Sudoku board.
-	 * @param row   Specified row.
-	 * @param col   Specified column.
-	 * @param n     Value being checked.
-	 * @return True if valid.
+	 * Same Fisher-Yates shuffle as Collections.shuffle, but drawing from this
+	 * generator's random source.
 	 */
-	private boolean blockIsValid(int[][] board, int row, int col, int n) {
-		int rowBlock = (row / 3) * 3;
-		int colBlock = (col / 3) * 3;
-		for (int r = 0; r < 3; r++) {
-			for (int c = 0; c < 3; c++) {
-				if (board[rowBlock + r][colBlock + c] == n) {
-					return false;
-				}
-			}
+	private void shufflePositions(ArrayList<int[]> positions) {
+		for (int i = positions.size(); i > 1; i--) {
+			Collections.swap(positions, i - 1, random.nextInt(i));
 		}
-		return true;
 	}
 
 	private void shuffleNumbers() {
 		for (int i = 1; i <= 9; i++) {
-			int n = ThreadLocalRandom.current().nextInt(1, 10);
+			int n = random.nextInt(1, 10);
 			swapNumbers(i, n);
 		}
 	}
@@ -241,7 +221,7 @@ public class RandomBoardGenerator {
 	private void shuffleRows() {
 		int blockNum;
 		for (int i = 0; i < 9; i++) {
-			int n = ThreadLocalRandom.current().nextInt(0, 3);
+			int n = random.nextInt(0, 3);
 			blockNum = i / 3;
 			swapRows(i, blockNum * 3 + n);
 		}
@@ -250,7 +230,7 @@ public class RandomBoardGenerator {
 	private void shuffleCols() {
 		int blockNum;
 		for (int i = 0; i < 9; i++) {
-			int n = ThreadLocalRandom.current().nextInt(0, 3);
+			int n = random.nextInt(0, 3);
 			blockNum = i / 3;
 			swapCols(i, blockNum * 3 + n);
 		}
@@ -258,14 +238,14 @@ public class RandomBoardGenerator {
 
 	private void shuffleRowBlocks() {
 		for (int i = 0; i < 3; i++) {
-			int n = ThreadLocalRandom.current().nextInt(0, 3);
+			int n = random.nextInt(0, 3);
 			swapRowBlocks(i, n);
 		}
 	}
 
 	private void shuffleColBlocks() {
 		for (int i = 0; i < 3; i++) {
-			int n = ThreadLocalRandom.current().nextInt(0, 3);
+			int n = random.nextInt(0, 3);
 			swapColBlocks(i, n);
 		}
 	}
@@ -309,15 +289,4 @@ public class RandomBoardGenerator {
 		}
 	}
 
-	/**
-	 * Makes a deep copy of the current board. Used so that, when checking if a
-	 * board has a solution, the current board is NOT modified.
-	 */
-	private void deepCopyBoardToSol() {
-		boardSol = new int[board.length][board[0].length];
-		for (int r = 0; r < boardSol.length; r++) {
-			boardSol[r] = Arrays.copyOf(board[r], board[r].length);
-		}
-	}
-
 }
@@ -3,52 +3,119 @@ package model;
 /*
  * Description:This code creates the SoundManager class, which controls how sound
  * effects are played in JavaFX applications. The sound effects are played by the
- * class using the MediaPlayer class from JavaFX.
+ * class using the AudioClip class from JavaFX, which decodes a whole effect into
+ * memory up front so it starts playing straight away.
+ *
+ * The effects are loaded on a background thread when the manager is created, so
+ * nothing waits on them. An effect asked for before it has loaded is skipped.
  */
 
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
+import javafx.scene.media.AudioClip;
 
-import java.io.File;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class SoundManager {
-    private MediaPlayer clickSound;
-    private MediaPlayer winSound;
+
+    /*
+     * Description: one loaded sound effect.
+     */
+    public interface Sound {
+        void play();
+    }
+
+    /*
+     * Description: turns an effect's file name, under /sfx, into something that
+     * can play it. Called on a background thread.
+     */
+    public interface Backend {
+        Sound load(String filename);
+    }
+
+    /*
+     * Description: a backend that plays nothing, for tests and machines without
+     * audio.
+     */
+    public static final Backend SILENT = filename -> () -> {};
+
+    private final CompletableFuture<Sound> clickSound;
+    private final CompletableFuture<Sound> winSound;
 
     public SoundManager() {
-        this.clickSound = createMediaPlayer("click.mp3");
-        this.winSound = createMediaPlayer("win.mp3");
+        this(ClipSound::new);
+    }
+
+    public SoundManager(Backend backend) {
+        this.clickSound = load(backend, "click.mp3");
+        this.winSound = load(backend, "win.mp3");
     }
 
     /*
-     * Description: The sound file is loaded as a URL by the createMediaPlayer
-     * function using the getResource method. RuntimeException is thrown with a
-     * message if the resource is null, indicating that the sound file was not found.
+     * Description: starts loading one effect. A failure is reported once, here,
+     * and the effect is then skipped whenever it would have played.
      */
-    private MediaPlayer createMediaPlayer(String filename) {
-        URL resource = getClass().getResource("/sfx/" + filename);
-        if (resource == null) {
-            throw new RuntimeException("Sound file not found: " + filename);
-        }
-        return new MediaPlayer(new Media(resource.toString()));
+    private static CompletableFuture<Sound> load(Backend backend, String filename) {
+        CompletableFuture<Sound> sound = CompletableFuture.supplyAsync(() -> backend.load(filename));
+        sound.whenComplete((loaded, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                System.err.println("Couldn't load sound effect " + filename + ": " + cause);
+            }
+        });
+        return sound;
+    }
+
+    /*
+     * Description: completes when both effects have loaded, or failed to load.
+     */
+    public CompletableFuture<Void> loaded() {
+        return CompletableFuture.allOf(clickSound, winSound).handle((ignored, error) -> null);
     }
 
     /*
      * Description: this plays the click sound when the user click on a cell.
      */
     public void playClickSound() {
-        clickSound.stop();
-        clickSound.seek(clickSound.getStartTime());
-        clickSound.play();
+        play(clickSound);
     }
 
     /*
      * Description: this plays the win sound when the user wins the game.
      */
     public void playWinSound() {
-        winSound.stop();
-        winSound.seek(winSound.getStartTime());
-        winSound.play();
+        play(winSound);
+    }
+
+    private static void play(CompletableFuture<Sound> sound) {
+        if (sound.isDone() && !sound.isCompletedExceptionally()) {
+            sound.join().play();
+        }
+    }
+
+    /*
+     * Description: an effect decoded into an AudioClip. AudioClip can play a clip
+     * again while it is still playing, so quick clicks overlap on their own.
+     */
+    private static final class ClipSound implements Sound {
+        private final AudioClip clip;
+
+        /*
+         * Description: The sound file is loaded as a URL using the getResource
+         * method. RuntimeException is thrown with a message if the resource is
+         * null, indicating that the sound file was not found.
+         */
+        ClipSound(String filename) {
+            URL resource = SoundManager.class.getResource("/sfx/" + filename);
+            if (resource == null) {
+                throw new RuntimeException("Sound file not found: " + filename);
+            }
+            clip = new AudioClip(resource.toString());
+        }
+
+        @Override
+        public void play() {
+            clip.play();
+        }
     }
 }
@@ -1,122 +1,200 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Respresentation of a single cell in a Sudoku game.
- * 
+ *
+ * A cell doesn't hold its own state: it is a view of one index into a game's
+ * flat {@link Grid} arrays, so a game is a few arrays rather than 81 objects. A
+ * cell constructed on its own gets a grid of its own.
+ *
  * @author Oscar Metcalf
  */
 public class SudokuCell {
 
-	private int heldValue;
-	private ArrayList<Integer> candidateValues;
-	private boolean initial;
+	private final Grid grid;
+	private final int index;
 
 	/**
 	 * Constructs a new cell which can be edited by the player.
 	 */
 	public SudokuCell() {
-		heldValue = 0;
-		candidateValues = new ArrayList<>();
-		initial = false;
+		this(new Grid(), 0);
 	}
 
 	/**
 	 * Constructs a cell which cannot be edited by the player. Used for creating a
 	 * new game.
-	 * 
+	 *
 	 * @param initialValue The initial value of the cell.
 	 */
 	public SudokuCell(int initialValue) {
-		heldValue = initialValue;
-		candidateValues = new ArrayList<>();
-		initial = true;
+		this();
+		grid.setGiven(0, initialValue);
+	}
+
+	/**
+	 * Constructs a view of cell index of a game's board.
+	 *
+	 * @param grid  The game's board.
+	 * @param index Row * 9 + column, or 0 for a cell on its own.
+	 */
+	SudokuCell(Grid grid, int index) {
+		this.grid = grid;
+		this.index = index;
 	}
 
 	/**
 	 * Sets the value of the cell to 0 if it is not an initial game cell.
 	 */
 	public void removeValue() {
-		if (!initial) {
-			heldValue = 0;
+		if (!isInitial()) {
+			grid.set(index, 0);
 		}
 	}
 
 	/**
 	 * Removes the specified candidate value from the cell if it exists.
-	 * 
+	 *
 	 * @param val The value to try and remove.
 	 */
 	public void removeCandidateValue(int val) {
-		if (initial) {
+		if (isInitial() || val <= 0 || val > 9) {
 			return;
 		}
-		for (int i = 0; i < candidateValues.size(); i++) {
-			if (candidateValues.get(i) == val) {
-				candidateValues.remove(i);
-				return;
-			}
-		}
+		grid.setCandidates(index, grid.getCandidates(index) & ~(1 << val));
 	}
-	
+
+	/**
+	 * Removes the highest candidate value, if there is one. Candidates are kept
+	 * as a set, not in the order they were added, so this is no longer the most
+	 * recently added one.
+	 */
 	public void removeCandidateValue() {
-		if (!candidateValues.isEmpty()) {
-			candidateValues.remove(candidateValues.size()-1);
+		int mask = grid.getCandidates(index);
+		if (mask != 0) {
+			grid.setCandidates(index, mask & ~Integer.highestOneBit(mask));
 		}
 	}
-	
+
 	public void clearCandidates() {
-		candidateValues.clear();
+		grid.setCandidates(index, 0);
+	}
+
+	/**
+	 * Adds the candidate value if the cell doesn't have it, otherwise removes it.
+	 *
+	 * @param val The value to toggle.
+	 */
+	public void toggleCandidateValue(int val) {
+		if (isInitial() || val <= 0 || val > 9) {
+			return;
+		}
+		grid.setCandidates(index, grid.getCandidates(index) ^ 1 << val);
+	}
+
+	/**
+	 * @return True if val is one of the cell's candidates.
+	 */
+	public boolean hasCandidate(int val) {
+		return val > 0 && val <= 9 && (grid.getCandidates(index) & 1 << val) != 0;
+	}
+
+	/**
+	 * @return The candidates as a mask, bit n set for candidate n.
+	 */
+	public int getCandidateMask() {
+		return grid.getCandidates(index);
+	}
+
+	/**
+	 * Runs action on each candidate value, in increasing order.
+	 */
+	public void forEachCandidate(IntConsumer action) {
+		for (int mask = grid.getCandidates(index); mask != 0; mask &= mask - 1) {
+			action.accept(Integer.numberOfTrailingZeros(mask));
+		}
 	}
 
 	/**
 	 * Returns the current cell value.
-	 * 
+	 *
 	 * @return
 	 */
 	public int getHeldValue() {
-		return heldValue;
+		return grid.get(index);
 	}
 
 	/**
-	 * Gets all the candidate values.
-	 * 
-	 * @return An ArrayList of the current candidate values.
+	 * Gets all the candidate values. The list is read-only and follows the cell,
+	 * so it reflects candidates added or removed after it was returned.
+	 *
+	 * @return The current candidate values, in increasing order.
 	 */
-	public ArrayList<Integer> getCandidateValues() {
-		return candidateValues;
+	public List<Integer> getCandidateValues() {
+		return new CandidateList();
 	}
 
 	/**
-	 * Sets the cell's value, if it isn't an initial cell.
-	 * 
+	 * Sets the cell's value, if it isn't an initial cell and the value is 0 to 9.
+	 *
 	 * @param heldValue The value to be set.
 	 * @return itself, for modification upon construction.
 	 */
 	public SudokuCell setHeldValue(int heldValue) {
-		if (initial) {
+		if (isInitial() || heldValue < 0 || heldValue > 9) {
 			return this;
 		}
-		this.heldValue = heldValue;
+		grid.set(index, heldValue);
 		return this;
 	}
 
 	/**
 	 * Adds the specified candidate value to the cell if possible and if it isn't an
 	 * initial cell.
-	 * 
+	 *
 	 * @param candidateValue The value to add.
 	 */
 	public void addCandidateValue(int candidateValue) {
-		if (initial || candidateValue <= 0 || candidateValue > 9 || candidateValues.contains(candidateValue)) {
+		if (isInitial() || candidateValue <= 0 || candidateValue > 9) {
 			return;
 		}
-		candidateValues.add(candidateValue);
+		grid.setCandidates(index, grid.getCandidates(index) | 1 << candidateValue);
 	}
-	
+
 	public boolean isInitial() {
-		return initial;
+		return grid.isGiven(index);
+	}
+
+	/**
+	 * Read-only list of the set bits of the cell's candidate mask.
+	 */
+	private class CandidateList extends AbstractList<Integer> {
+
+		@Override
+		public Integer get(int i) {
+			int mask = grid.getCandidates(index);
+			if (i < 0 || i >= Integer.bitCount(mask)) {
+				throw new IndexOutOfBoundsException("Candidate " + i + " of " + Integer.bitCount(mask));
+			}
+			for (; i > 0; i--) {
+				mask &= mask - 1;
+			}
+			return Integer.numberOfTrailingZeros(mask);
+		}
+
+		@Override
+		public int size() {
+			return Integer.bitCount(grid.getCandidates(index));
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Integer && hasCandidate((Integer) o);
+		}
 	}
 
 }
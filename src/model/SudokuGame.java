@@ -1,9 +1,16 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Stack;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * Object that handles playing a game of Sudoku. TODO: method of updating user
@@ -13,10 +20,31 @@ import java.util.concurrent.ThreadLocalRandom;
 
 public class SudokuGame extends OurObservable {
 
-	private ArrayList<ArrayList<SudokuCell>> currentBoard;
-	private ArrayList<ArrayList<SudokuCell>> solution;
+	// a snapshot of the board every this many moves, so any move is reached
+	// from a snapshot by replaying fewer than this many moves
+	private static final int CHECKPOINT_INTERVAL = 64;
+	// threads for createAsync, which cancelling can interrupt
+	private static final ExecutorService CREATORS = Executors.newCachedThreadPool(task -> {
+		Thread thread = new Thread(task, "game-create");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Grid grid = new Grid();
+	// one view per cell, handed out by getCell and getBoard
+	private final SudokuCell[] cells = new SudokuCell[81];
+	private CompletableFuture<int[][]> solution;
+	private boolean completed;
 //	private User currentUser;
-	private Stack<Action> stack;
+
+	private final MoveLog moves = new MoveLog();
+	// board snapshots by the number of moves made when they were taken
+	private final TreeMap<Integer, short[]> checkpoints = new TreeMap<>();
+	// how many batches are open, and how many moves the outermost one has made
+	private int batchDepth;
+	private int batchMoves;
+	// conflicting cells as of the last BoardChangedEvent
+	private BitSet conflicts = new BitSet(81);
 
 	/**
 	 * Constructs a new Sudoku game.
@@ -24,13 +52,129 @@ public class SudokuGame extends OurObservable {
 	 * @param difficulty Determines what type of board is generated.
 	 */
 	public SudokuGame(String difficulty) {
-		currentBoard = new ArrayList<>();
-		stack = new Stack<>();
+		this(difficulty, null);
+	}
+
+	{
+		for (int i = 0; i < 81; i++) {
+			cells[i] = new SudokuCell(grid, i);
+		}
+	}
+
+	/**
+	 * Constructs a new Sudoku game, using a ready puzzle from the pool when it has
+	 * one. Never waits on the pool: if nothing is ready the board is generated
+	 * here as usual.
+	 * 
+	 * @param difficulty Determines what type of board is generated.
+	 * @param pool       Pre-generated puzzles, or null to always generate.
+	 */
+	public SudokuGame(String difficulty, PuzzlePool pool) {
 //		currentUser = getUser();
-		generateBoard();
-		generateCells(difficulty);
-		copyInitialBoard();
-		solve(); // causing a little error before gui launch
+		Puzzle pooled = pool == null ? null : pool.poll(difficulty);
+		if (pooled != null) {
+			loadPuzzle(pooled);
+		} else {
+			generateCells(difficulty);
+		}
+		if (solution == null) {
+			// only the premade board comes without its solution
+			solveInBackground();
+		}
+	}
+
+	/**
+	 * Constructs a new Sudoku game for a puzzle that already knows its solution.
+	 * 
+	 * @param puzzle Puzzle to play.
+	 */
+	public SudokuGame(Puzzle puzzle) {
+		loadPuzzle(puzzle);
+	}
+
+	/**
+	 * Constructs a new Sudoku game whose board is generated from a seed, so the
+	 * same difficulty and seed always give the same game. Difficulties other than
+	 * EASY, MEDIUM and HARD still get the premade board.
+	 * 
+	 * @param difficulty Determines what type of board is generated.
+	 * @param seed       Seed passed on to {@link RandomBoardGenerator}.
+	 */
+	public SudokuGame(String difficulty, long seed) {
+		if (isRandomDifficulty(difficulty)) {
+			loadPuzzle(new RandomBoardGenerator(difficulty, seed).getPuzzle());
+		} else {
+			generateCellsPremade();
+			solveInBackground();
+		}
+	}
+
+	/**
+	 * Constructs a game from puzzle index of a library. The cells are read
+	 * straight out of the mapped file, and the stored solution is used instead of
+	 * solving the board again.
+	 * 
+	 * @param library Opened puzzle library.
+	 * @param index   Which puzzle to play.
+	 */
+	public SudokuGame(PuzzleLibrary library, int index) {
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				setGiven(r, c, library.getGiven(index, r, c));
+			}
+		}
+		int[][] board = new int[9][9];
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				board[r][c] = library.getSolution(index, r, c);
+			}
+		}
+		solution = CompletableFuture.completedFuture(board);
+		grid.setSolution(board);
+	}
+
+	/**
+	 * Constructs a new game on a background thread, so generating a board never
+	 * holds up the caller. Cancelling the future interrupts the thread, which
+	 * stops a generation that is still removing cells.
+	 * 
+	 * @param difficulty Determines what type of board is generated.
+	 * @param pool       Pre-generated puzzles, or null to always generate.
+	 * @return The game, once it has been constructed.
+	 */
+	public static CompletableFuture<SudokuGame> createAsync(String difficulty, PuzzlePool pool) {
+		return createAsync(() -> new SudokuGame(difficulty, pool));
+	}
+
+	/**
+	 * Constructs a new game on a background thread like {@link #createAsync(String, PuzzlePool)}, but
+	 * always generates its board, using the given solver for the uniqueness
+	 * checks.
+	 * 
+	 * @param difficulty EASY, MEDIUM or HARD, as for {@link RandomBoardGenerator}.
+	 * @param solver     Backend passed on to {@link RandomBoardGenerator}.
+	 * @return The game, once it has been constructed.
+	 */
+	public static CompletableFuture<SudokuGame> generateAsync(String difficulty, SudokuSolver solver) {
+		return createAsync(() -> new SudokuGame(new RandomBoardGenerator(difficulty, solver).getPuzzle()));
+	}
+
+	private static CompletableFuture<SudokuGame> createAsync(Supplier<SudokuGame> create) {
+		CompletableFuture<SudokuGame> result = new CompletableFuture<>();
+		Future<?> task = CREATORS.submit(() -> {
+			try {
+				result.complete(create.get());
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		// a CompletableFuture can't interrupt what completes it, so pass it on
+		result.whenComplete((game, error) -> {
+			if (result.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		return result;
 	}
 
 	/*
@@ -40,10 +184,9 @@ public class SudokuGame extends OurObservable {
 	 * @param n number to add
 	 */
 	public void addMove(int row, int col, int n) {
-		stack.add(0, new AddToCell(getCell(row, col), true, n));
-		stack.get(0).action();
-		System.out.println(stack.size());
-		this.notifyObservers(this);
+		int i = row * 9 + col;
+		boolean set = !grid.isGiven(i) && n >= 0 && n <= 9;
+		perform(MoveLog.SET_VALUE, i, set ? n : grid.get(i), 0);
 	}
 
 	/*
@@ -52,10 +195,8 @@ public class SudokuGame extends OurObservable {
 	 * @param col
 	 */
 	public void deleteMove(int row, int col) {
-		stack.add(0, new EraseFromCell(getCell(row, col), true));
-		stack.get(0).action();
-		System.out.println(stack.size());
-		this.notifyObservers(this);
+		int i = row * 9 + col;
+		perform(MoveLog.ERASE_VALUE, i, grid.isGiven(i) ? grid.get(i) : 0, grid.getCandidates(i));
 	}
 
 	/*
@@ -65,10 +206,13 @@ public class SudokuGame extends OurObservable {
 	 * @param n the candidate value to add
 	 */
 	public void addCandidate(int row, int col, int n) {
-		stack.add(0, new AddToCell(getCell(row, col), false, n));
-		stack.get(0).action();
-		System.out.println(stack.size());
-		this.notifyObservers(this);
+		int i = row * 9 + col;
+		if (grid.isGiven(i)) {
+			perform(MoveLog.ADD_CANDIDATE, i, grid.get(i), grid.getCandidates(i));
+		} else {
+			int bit = n > 0 && n <= 9 ? 1 << n : 0;
+			perform(MoveLog.ADD_CANDIDATE, i, 0, grid.getCandidates(i) | bit);
+		}
 	}
 	
 	/*
@@ -77,30 +221,113 @@ public class SudokuGame extends OurObservable {
 	 * @param col
 	 */
 	public void deleteCandidates(int row, int col) {
-		stack.add(0, new EraseFromCell(getCell(row, col), false));
-		stack.get(0).action();
-		System.out.println(stack.size());
-		this.notifyObservers(this);
+		int i = row * 9 + col;
+		perform(MoveLog.CLEAR_CANDIDATES, i, grid.get(i), 0);
 	}
 
-	public ArrayList<Integer> getCandidates(int row, int col) {
-		return currentBoard.get(row).get(col).getCandidateValues();
+	/*
+	 * add a candidate value to a cell if it doesn't have it, otherwise remove it
+	 * @param row
+	 * @param col
+	 * @param n the candidate value to toggle
+	 */
+	public void toggleCandidate(int row, int col, int n) {
+		int i = row * 9 + col;
+		int bit = !grid.isGiven(i) && n > 0 && n <= 9 ? 1 << n : 0;
+		int candidates = grid.getCandidates(i);
+		// adding a note clears the value, as addCandidate does
+		int value = (candidates & bit) == 0 && bit != 0 ? 0 : grid.get(i);
+		perform(MoveLog.TOGGLE_CANDIDATE, i, value, candidates ^ bit);
 	}
 
+	/**
+	 * Makes a group of changes as one. Observers hear about them once, after the
+	 * last change, with every changed cell in a single BoardChangedEvent. The
+	 * moves made are undone and redone together. If changes throws, the board is
+	 * put back as it was, the moves it made are dropped from the history, and
+	 * observers aren't told anything. Batches may be nested; only the outermost
+	 * one notifies.
+	 * 
+	 * @param changes Calls to this game's move methods.
+	 */
+	public void batch(Runnable changes) {
+		int start = moves.first() + moves.made();
+		short[] before = grid.snapshot();
+		if (batchDepth++ == 0) {
+			batchMoves = 0;
+		}
+		int movesBefore = batchMoves;
+		boolean done = false;
+		try {
+			changes.run();
+			done = true;
+		} finally {
+			batchDepth--;
+			if (!done) {
+				rollBack(start, before);
+				batchMoves = movesBefore;
+			} else if (batchDepth == 0) {
+				changed();
+			}
+		}
+	}
+
+	/**
+	 * Puts the board back to a snapshot taken when start moves had been made, and
+	 * drops the moves made since.
+	 */
+	private void rollBack(int start, short[] before) {
+		grid.restore(before);
+		// an enclosing batch still has to report the cells it changed
+		if (batchDepth == 0) {
+			grid.clearChanges();
+		}
+		checkpoints.tailMap(start, false).clear();
+		moves.truncate(start);
+	}
+
+	/**
+	 * @return A read-only view of a cell's candidates, which follows the cell.
+	 */
+	public List<Integer> getCandidates(int row, int col) {
+		return getCell(row, col).getCandidateValues();
+	}
+
+	/**
+	 * @return A view of a cell of the board. Changes made through it change the
+	 *         game.
+	 */
 	public SudokuCell getCell(int row, int col) {
-		return currentBoard.get(row).get(col);
+		if (row < 0 || row >= 9 || col < 0 || col >= 9) {
+			throw new IndexOutOfBoundsException("Cell " + row + "," + col);
+		}
+		return cells[row * 9 + col];
 	}
 
+	/**
+	 * @return The board as rows of cell views. The lists are new on every call,
+	 *         but the cells in them are the game's own, as from getCell.
+	 */
 	public ArrayList<ArrayList<SudokuCell>> getBoard() {
-		return currentBoard;
+		ArrayList<ArrayList<SudokuCell>> board = new ArrayList<>(9);
+		for (int row = 0; row < 9; row++) {
+			ArrayList<SudokuCell> cellRow = new ArrayList<>(9);
+			for (int col = 0; col < 9; col++) {
+				cellRow.add(cells[row * 9 + col]);
+			}
+			board.add(cellRow);
+		}
+		return board;
 	}
 
 	/**
-	 * Public method to call the recursive algorithm.
+	 * Waits until the solution board for the current game is ready. Only the
+	 * premade board is solved after construction, in the background; every other
+	 * game starts with its solution.
 	 * 
 	 */
 	public void solve() {
-		recursiveSolution();
+		solution();
 	}
 
 		/**
@@ -110,46 +337,23 @@ public class SudokuGame extends OurObservable {
 		 * @return True if the current board matches the solution board.
 		 */
 		public boolean checkIfSolutionIsCorrect() {
-			for (int row = 0; row < currentBoard.size(); row++) {
-				for (int col = 0; col < currentBoard.get(row).size(); col++) {
-					SudokuCell currentCell = currentBoard.get(row).get(col);
-					if (currentCell.getHeldValue() != solution.get(row).get(col).getHeldValue()
-							|| currentCell.getHeldValue() == 0) {
-						return false;
-					}
-				}
-			}
-			return true;
+			return getFilledCount() == 81 && getCorrectCount() == 81;
 		}
 
 	/**
-	 * Creates a 9x9 2D ArrayList of empty SudokuCell objects.
+	 * @return How many cells hold a value, initial cells included.
 	 */
-
-	private void generateBoard() {
-		for (int rows = 0; rows < 9; rows++) {
-			ArrayList<SudokuCell> row = new ArrayList<>();
-			for (int cols = 0; cols < 9; cols++) {
-				row.add(new SudokuCell());
-			}
-			currentBoard.add(row);
-		}
+	public int getFilledCount() {
+		return grid.filled();
 	}
 
 	/**
-	 * Copies the initial state of the game to a new 2D ArrayList. This list is used
-	 * to create and store the unique solution to the current game.
+	 * @return How many cells hold their solution value. Waits for the solution if
+	 *         it is still being found.
 	 */
-	private void copyInitialBoard() {
-		solution = new ArrayList<>();
-		for (int r = 0; r < currentBoard.size(); r++) {
-			ArrayList<SudokuCell> row = new ArrayList<>();
-			for (int c = 0; c < currentBoard.get(r).size(); c++) {
-				int valToAdd = currentBoard.get(r).get(c).getHeldValue();
-				row.add(new SudokuCell().setHeldValue(valToAdd));
-			}
-			solution.add(row);
-		}
+	public int getCorrectCount() {
+		solution();
+		return grid.correct();
 	}
 
 	/**
@@ -159,8 +363,7 @@ public class SudokuGame extends OurObservable {
 	 * @param difficulty Changes what board is created.
 	 */
 	private void generateCells(String difficulty) {
-		String d = difficulty.toUpperCase();
-		if (!d.equals("EASY") && !d.equals(("MEDIUM")) && !d.equals("HARD")) {
+		if (!isRandomDifficulty(difficulty)) {
 			generateCellsPremade();
 			return;
 		} else {
@@ -168,6 +371,11 @@ public class SudokuGame extends OurObservable {
 		}
 	}
 
+	private boolean isRandomDifficulty(String difficulty) {
+		String d = difficulty.toUpperCase();
+		return d.equals("EASY") || d.equals("MEDIUM") || d.equals("HARD");
+	}
+
 	/**
 	 * Creates a random board based on the given difficulty.
 	 * 
@@ -175,15 +383,32 @@ public class SudokuGame extends OurObservable {
 	 */
 	private void generateCellsRandom(String difficulty) {
 		RandomBoardGenerator gen = new RandomBoardGenerator(difficulty);
-		int[][] randomBoard = gen.getBoard();
+		loadPuzzle(gen.getPuzzle());
+	}
+
+	/**
+	 * Fills in the initial cells from a puzzle and takes its solution as this
+	 * game's solution.
+	 * 
+	 * @param puzzle
+	 */
+	private void loadPuzzle(Puzzle puzzle) {
 		for (int r = 0; r < 9; r++) {
 			for (int c = 0; c < 9; c++) {
-				int n = randomBoard[r][c];
-				if (n != 0) {
-					currentBoard.get(r).set(c, new SudokuCell(n));
-				}
+				setGiven(r, c, puzzle.getGiven(r, c));
 			}
 		}
+		solution = CompletableFuture.completedFuture(puzzle.getSolution());
+		grid.setSolution(puzzle.getSolution());
+	}
+
+	/**
+	 * Sets an initial cell, or does nothing for 0.
+	 */
+	private void setGiven(int row, int col, int n) {
+		if (n != 0) {
+			grid.setGiven(row * 9 + col, n);
+		}
 	}
 
 	/**
@@ -192,23 +417,23 @@ public class SudokuGame extends OurObservable {
 	 * @param If "solution" is passed, prints the current solution board.
 	 */
 	public void printBoard(String s) {
-		ArrayList<ArrayList<SudokuCell>> board;
+		int[][] board;
 		if (s.equals("solution")) {
-			board = solution;
+			board = solution();
 		} else {
-			board = currentBoard;
+			board = currentValues();
 		}
 
 		System.out.print("----------------------------\n");
 		int j = 0;
-		for (ArrayList<SudokuCell> row : board) {
+		for (int[] row : board) {
 			j++;
 			int i = 0;
 			System.out.print("| ");
-			for (SudokuCell col : row) {
+			for (int col : row) {
 				i++;
-				if (col.getHeldValue() != 0) {
-					System.out.print(col.getHeldValue() + " ");
+				if (col != 0) {
+					System.out.print(col + " ");
 				} else {
 					System.out.print("  ");
 				}
@@ -232,214 +457,338 @@ public class SudokuGame extends OurObservable {
 	 * @param testing True if testing.
 	 */
 	private void generateCellsPremade() {
+		setGiven(1, 0, 6);
+		setGiven(1, 1, 8);
+		setGiven(2, 0, 1);
+		setGiven(2, 1, 9);
+
+		setGiven(0, 3, 2);
+		setGiven(0, 4, 6);
+		setGiven(1, 4, 7);
+		setGiven(2, 5, 4);
+
+		setGiven(0, 6, 7);
+		setGiven(0, 8, 1);
+		setGiven(1, 7, 9);
+		setGiven(2, 6, 5);
+
+		setGiven(3, 0, 8);
+		setGiven(3, 1, 2);
+		setGiven(4, 2, 4);
+		setGiven(5, 1, 5);
+
+		setGiven(3, 3, 1);
+		setGiven(4, 3, 6);
+		setGiven(4, 5, 2);
+		setGiven(5, 5, 3);
+
+		setGiven(3, 7, 4);
+		setGiven(4, 6, 9);
+		setGiven(5, 7, 2);
+		setGiven(5, 8, 8);
+
+		setGiven(6, 2, 9);
+		setGiven(7, 1, 4);
+		setGiven(8, 0, 7);
+		setGiven(8, 2, 3);
+
+		setGiven(6, 3, 3);
+		setGiven(7, 4, 5);
+		setGiven(8, 4, 1);
+		setGiven(8, 5, 8);
+
+		setGiven(6, 7, 7);
+		setGiven(6, 8, 4);
+		setGiven(7, 7, 3);
+		setGiven(7, 8, 6);
+	}
 
-		currentBoard.get(1).set(0, new SudokuCell(6));
-		currentBoard.get(1).set(1, new SudokuCell(8));
-		currentBoard.get(2).set(0, new SudokuCell(1));
-		currentBoard.get(2).set(1, new SudokuCell(9));
-
-		currentBoard.get(0).set(3, new SudokuCell(2));
-		currentBoard.get(0).set(4, new SudokuCell(6));
-		currentBoard.get(1).set(4, new SudokuCell(7));
-		currentBoard.get(2).set(5, new SudokuCell(4));
-
-		currentBoard.get(0).set(6, new SudokuCell(7));
-		currentBoard.get(0).set(8, new SudokuCell(1));
-		currentBoard.get(1).set(7, new SudokuCell(9));
-		currentBoard.get(2).set(6, new SudokuCell(5));
-
-		currentBoard.get(3).set(0, new SudokuCell(8));
-		currentBoard.get(3).set(1, new SudokuCell(2));
-		currentBoard.get(4).set(2, new SudokuCell(4));
-		currentBoard.get(5).set(1, new SudokuCell(5));
-
-		currentBoard.get(3).set(3, new SudokuCell(1));
-		currentBoard.get(4).set(3, new SudokuCell(6));
-		currentBoard.get(4).set(5, new SudokuCell(2));
-		currentBoard.get(5).set(5, new SudokuCell(3));
-
-		currentBoard.get(3).set(7, new SudokuCell(4));
-		currentBoard.get(4).set(6, new SudokuCell(9));
-		currentBoard.get(5).set(7, new SudokuCell(2));
-		currentBoard.get(5).set(8, new SudokuCell(8));
-
-		currentBoard.get(6).set(2, new SudokuCell(9));
-		currentBoard.get(7).set(1, new SudokuCell(4));
-		currentBoard.get(8).set(0, new SudokuCell(7));
-		currentBoard.get(8).set(2, new SudokuCell(3));
+//	private User getUser() {
+//		
+//	}
 
-		currentBoard.get(6).set(3, new SudokuCell(3));
-		currentBoard.get(7).set(4, new SudokuCell(5));
-		currentBoard.get(8).set(4, new SudokuCell(1));
-		currentBoard.get(8).set(5, new SudokuCell(8));
+	/**
+	 * Checks a value against the rest of the cell's row, column and block, not
+	 * counting the cell itself. Answered from per-unit digit counts, so it doesn't
+	 * scan the board.
+	 * 
+	 * @param row The row of the cell being checked.
+	 * @param col The col of the cell being checked.
+	 * @param val The value of the cell being checked.
+	 * @return True if it's a valid move.
+	 */
+	public boolean cellIsValid(int row, int col, int val) {
+		return grid.isValid(row * 9 + col, val);
+	}
 
-		currentBoard.get(6).set(7, new SudokuCell(7));
-		currentBoard.get(6).set(8, new SudokuCell(4));
-		currentBoard.get(7).set(7, new SudokuCell(3));
-		currentBoard.get(7).set(8, new SudokuCell(6));
+	/**
+	 * @return True if the cell holds a value that another cell in its row, column
+	 *         or block also holds.
+	 */
+	public boolean cellHasConflict(int row, int col) {
+		int i = row * 9 + col;
+		return grid.get(i) != 0 && !grid.isValid(i, grid.get(i));
+	}
 
+	/**
+	 * Lists the cells that hold a value repeated in their row, column or block.
+	 * Only units with a repeated digit are looked at.
+	 * 
+	 * @return Set bit row * 9 + col for each conflicting cell.
+	 */
+	public BitSet getConflicts() {
+		return grid.conflicts();
 	}
 
-//	private User getUser() {
-//		
-//	}
+	/*
+	 * Checking to see if the value to be added is the same as the solution.
+	 */
+	public boolean cellIsCorrect(int row, int column, int value) {
+		return solution()[row][column] == value;
+	}
 
 	/**
-	 * checks to see if a specific cell is valid. Used to check specifically on the
-	 * solution 2D ArrayList object.
+	 * Starts solving the current board on a background thread. The board is
+	 * copied first, so the player can keep making moves while it runs.
+	 */
+	private void solveInBackground() {
+		int[][] board = currentValues();
+		solution = CompletableFuture.supplyAsync(() -> {
+			new BitmaskSolver().solve(board);
+			return board;
+		});
+	}
+	
+	/**
+	 * Waits for the solution, and hands it to the grid the first time so the
+	 * grid can count correct cells from then on.
 	 * 
-	 * @param checkSolution True if method is being used for the recursive
-	 *                      backtracking algorithm. False if it's being used to
-	 *                      check user input.
-	 * @param row           Row being checked
-	 * @param col           Column being checked
-	 * @param n             Specific held value of the cell being checked
-	 * @return True if the cell is valid, otherwise false
-	 */
-	private boolean cellIsValidForRecursion(ArrayList<ArrayList<SudokuCell>> board, int row, int col, int n) {
-		for (int x = 0; x < board.get(row).size(); x++) {
-			if (board.get(row).get(x).getHeldValue() == n) {
-				return false;
-			}
+	 * @return The solution board.
+	 */
+	private int[][] solution() {
+		int[][] board = solution.join();
+		if (!grid.hasSolution()) {
+			grid.setSolution(board);
 		}
+		return board;
+	}
 
-		for (int y = 0; y < board.get(col).size(); y++) {
-			if (board.get(y).get(col).getHeldValue() == n) {
-				return false;
-			}
+	/**
+	 * Tells observers which cells changed and how, and also sends a GameCompletedEvent
+	 * the first time the board becomes full and correct. Only a full board can be
+	 * correct, so the solution isn't needed before then. Inside a batch this waits
+	 * for the batch to end.
+	 */
+	private void changed() {
+		if (batchDepth > 0) {
+			return;
 		}
-
-		int row0 = row - row % 3;
-		int col0 = col - col % 3;
-		for (int i = row0; i < row0 + 3; i++) {
-			for (int j = col0; j < col0 + 3; j++) {
-				if (board.get(i).get(j).getHeldValue() == n) {
-					return false;
-				}
-			}
+		BitSet now = grid.conflicts();
+		BitSet flipped = (BitSet) now.clone();
+		flipped.xor(conflicts);
+		conflicts = now;
+		this.notifyObservers(
+				new BoardChangedEvent(this, grid.takeValueChanges(), grid.takeCandidateChanges(), flipped));
+		boolean done = checkIfSolutionIsCorrect();
+		if (done && !completed) {
+			completed = true;
+			this.notifyObservers(new GameCompletedEvent(this));
 		}
-
-		return true;
+		completed = done;
 	}
 
 	/**
-	 * Same as the other cellIsValid method, but with extra conditionals to "skip
-	 * over" the player move. The way move checking works could be reworked, but
-	 * this works for now.
+	 * @return A copy of the held values as a 9x9 board.
+	 */
+	private int[][] currentValues() {
+		int[][] board = new int[9][9];
+		for (int i = 0; i < 81; i++) {
+			board[i / 9][i % 9] = grid.get(i);
+		}
+		return board;
+	}
+	
+	/**
+	 * Does a new move and records it. Anything undone can no longer be redone, and
+	 * if the history is at its limit the oldest move is forgotten.
 	 * 
-	 * @param row The row of the cell being checked.
-	 * @param col The col of the cell being checked.
-	 * @param val The value of the cell being checked.
-	 * @return True if it's a valid move.
+	 * @param type  What kind of move it is, for the record.
+	 * @param i     Cell index.
+	 * @param value The cell's value after the move.
+	 * @param mask  The cell's candidates after the move.
 	 */
-	public boolean cellIsValid(int row, int col, int val) {
-		for (int x = 0; x < currentBoard.get(row).size(); x++) {
-			if (x != col) {
-				if (currentBoard.get(row).get(x).getHeldValue() == val) {
-					return false;
-				}
-			}
+	private void perform(int type, int i, int value, int mask) {
+		int position = moves.first() + moves.made();
+		// checkpoints past here were taken along the moves being replaced
+		checkpoints.tailMap(position, false).clear();
+		if (position % CHECKPOINT_INTERVAL == 0 && !checkpoints.containsKey(position)) {
+			checkpoints.put(position, grid.snapshot());
 		}
+		boolean joined = batchDepth > 0 && batchMoves++ > 0;
+		moves.push(MoveLog.pack(type, i, grid.get(i), value, grid.getCandidates(i), mask, joined));
+		checkpoints.headMap(moves.first()).clear();
+		grid.set(i, value);
+		grid.setCandidates(i, mask);
+		changed();
+	}
 
-		for (int y = 0; y < currentBoard.get(col).size(); y++) {
-			if (y != row) {
-				if (currentBoard.get(y).get(col).getHeldValue() == val) {
-					return false;
-				}
-			}
+	/*
+	 * undo a move whether it be add value or remove a value. moves made in one
+	 * batch are undone together
+	 */
+	public void undoMove() {
+		if (moves.canUndo()) {
+			long move;
+			do {
+				move = moves.undo();
+				grid.set(MoveLog.cell(move), MoveLog.oldValue(move));
+				grid.setCandidates(MoveLog.cell(move), MoveLog.oldMask(move));
+			} while (MoveLog.joined(move) && moves.canUndo());
+			changed();
 		}
+	}
 
-		int row0 = row - row % 3;
-		int col0 = col - col % 3;
-		for (int i = row0; i < row0 + 3; i++) {
-			for (int j = col0; j < col0 + 3; j++) {
-				if (i != row || j != col) {
-					if (currentBoard.get(i).get(j).getHeldValue() == val) {
-						return false;
-					}
-				}
-			}
+	/*
+	 * redo the last undone move, if no new move was made since. moves made in one
+	 * batch are redone together
+	 */
+	public void redoMove() {
+		if (moves.canRedo()) {
+			do {
+				long move = moves.redo();
+				grid.set(MoveLog.cell(move), MoveLog.newValue(move));
+				grid.setCandidates(MoveLog.cell(move), MoveLog.newMask(move));
+			} while (moves.canRedo() && MoveLog.joined(moves.get(moves.made())));
+			changed();
 		}
-		return true;
 	}
 
-	/*
-	 * Checking to see if the value to be added is the same as the solution.
+	public boolean canUndo() {
+		return moves.canUndo();
+	}
+
+	public boolean canRedo() {
+		return moves.canRedo();
+	}
+
+	/**
+	 * @return How many moves can be undone.
 	 */
-	public boolean cellIsCorrect(int row, int column, int value) {
-		return solution.get(row).get(column).getHeldValue() == value;
+	public int getHistorySize() {
+		return moves.made();
 	}
 
 	/**
-	 * Solves the current Sudoku game recursively. This specific algorithm is based
-	 * off the following resources: https://www.baeldung.com/java-sudoku,
-	 * https://www.heimetli.ch/ffh/simplifiedsudoku.html
+	 * @return How many moves are in the history, counting undone moves that can
+	 *         still be redone.
+	 */
+	public int getMoveCount() {
+		return moves.size();
+	}
+
+	/**
+	 * Unpacks a move from the history.
 	 * 
-	 * @return
-	 */
-	private boolean recursiveSolution() {
-		for (int row = 0; row < solution.size(); row++) {
-			for (int col = 0; col < solution.get(row).size(); col++) {
-				if (solution.get(row).get(col).getHeldValue() == 0) {
-					for (int n = 1; n <= 9; n++) {
-						if (cellIsValidForRecursion(solution, row, col, n)) {
-							solution.get(row).get(col).setHeldValue(n);
-							if (recursiveSolution()) {
-								return true;
-							} else {
-								solution.get(row).get(col).removeValue();
-							}
-
-						}
-					}
-					return false;
-				}
-			}
+	 * @param n Which move, 0 being the oldest one kept.
+	 * @return The move.
+	 */
+	public Move getMove(int n) {
+		if (n < 0 || n >= moves.size()) {
+			throw new IndexOutOfBoundsException("Move " + n + " of " + moves.size());
 		}
+		return new Move(moves.get(n));
+	}
 
-		return true;
+	/**
+	 * Puts the board where it was after move n of the history, as if moves were
+	 * undone or redone until then. Later moves can still be redone. Starts from
+	 * the board as it is or the nearest checkpoint, whichever is closer, so only
+	 * the moves between there and move n are replayed.
+	 * 
+	 * @param n How many moves of the history to have made, 0 to
+	 *          {@link #getMoveCount()}.
+	 */
+	public void jumpTo(int n) {
+		if (n < 0 || n > moves.size()) {
+			throw new IndexOutOfBoundsException("Move " + n + " of " + moves.size());
+		}
+		int first = moves.first();
+		int target = first + n;
+		int from = first + moves.made();
+		Map.Entry<Integer, short[]> below = checkpoints.floorEntry(target);
+		Map.Entry<Integer, short[]> above = checkpoints.ceilingEntry(target);
+		if (above != null && above.getKey() > first + moves.size()) {
+			above = null;
+		}
+		Map.Entry<Integer, short[]> start = below;
+		if (start == null || above != null && above.getKey() - target < target - below.getKey()) {
+			start = above;
+		}
+		if (start != null && Math.abs(start.getKey() - target) < Math.abs(from - target)) {
+			grid.restore(start.getValue());
+			from = start.getKey();
+		}
+		for (; from < target; from++) {
+			long move = moves.get(from - first);
+			grid.set(MoveLog.cell(move), MoveLog.newValue(move));
+			grid.setCandidates(MoveLog.cell(move), MoveLog.newMask(move));
+		}
+		for (; from > target; from--) {
+			long move = moves.get(from - 1 - first);
+			grid.set(MoveLog.cell(move), MoveLog.oldValue(move));
+			grid.setCandidates(MoveLog.cell(move), MoveLog.oldMask(move));
+		}
+		moves.setCursor(n);
+		changed();
 	}
-	
-	/*
-	 * undo a move whether it be add value or remove a value
+
+	/**
+	 * Caps how many moves are kept for undo, forgetting the oldest ones beyond it.
+	 * 
+	 * @param limit Most moves to keep, or 0 to keep them all.
 	 */
-	public void undoMove() {
-		if (!stack.isEmpty()) {
-			stack.remove(0).undo();
-			this.notifyObservers(this);
+	public void setHistoryLimit(int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit must not be negative");
 		}
-		System.out.println(stack.size());
+		moves.setLimit(limit);
+		checkpoints.headMap(moves.first()).clear();
 	}
 	
 	/*
-	 * reset the game to its original position
+	 * reset the game to its original position. the board is cleared back to its
+	 * initial cells in one pass rather than undone move by move, so moves dropped
+	 * from a limited history are reset too. the history is cleared
 	 */
 	public void resetGame() {
-		while (!stack.isEmpty()) {
-			stack.remove(0).undo();
-		}
-		this.notifyObservers(this);
+		grid.clearMoves();
+		moves.clear();
+		checkpoints.clear();
+		changed();
 	}
 
 	/*
-	 * show correct value of a cell
+	 * show correct value of a cell, clearing its candidates. can be undone
 	 * @param row
 	 * @param column
 	 */
 	public void showCorrectCell(int row, int column) {
-		currentBoard.get(row).get(column).setHeldValue(solution.get(row).get(column).getHeldValue());
-		this.notifyObservers(this);
+		addMove(row, column, solution()[row][column]);
 	}
 
 	/*
-	 * reveal board
+	 * reveal board, clearing all candidates. done as one batch, so observers
+	 * are told once and a single undo hides it again
 	 */
 	public void revealBoard() {
-		for (int row = 0; row < solution.size(); row++) {
-			for (int column = 0; column < solution.size(); column++) {
-				currentBoard.get(row).get(column).setHeldValue(solution.get(row).get(column).getHeldValue());
+		int[][] solution = solution();
+		batch(() -> {
+			for (int i = 0; i < 81; i++) {
+				int value = solution[i / 9][i % 9];
+				if (grid.get(i) != value || grid.getCandidates(i) != 0) {
+					addMove(i / 9, i % 9, value);
+				}
 			}
-			this.notifyObservers(this);
-		}
+		});
 	}
 }
@@ -0,0 +1,73 @@
+package model;
+
+/**
+ * A backend that can solve Sudoku boards. Boards are 9x9 int arrays where 0
+ * marks an empty cell.
+ */
+public interface SudokuSolver {
+
+	/**
+	 * Counts the solutions of a board, stopping once limit is reached. The board
+	 * is left unchanged.
+	 *
+	 * @param board 2D int array representing the board.
+	 * @param limit Stop searching after this many solutions.
+	 * @return How many solutions were found, at most limit.
+	 */
+	public int countSolutions(int[][] board, int limit);
+
+	/**
+	 * Fills in the empty cells of a board with the first solution found.
+	 *
+	 * @param board 2D int array representing the board.
+	 * @return True if a solution was found, false if the board is unsolvable (in
+	 *         which case it is left unchanged).
+	 */
+	public boolean solve(int[][] board);
+
+	/**
+	 * Checks whether the board has a solution where the given empty cell holds
+	 * something other than value. If the board with value put back has a unique
+	 * solution, this is exactly the question of whether emptying the cell breaks
+	 * that uniqueness. The board is left unchanged.
+	 *
+	 * @param board 2D int array representing the board.
+	 * @param row   Row of the empty cell.
+	 * @param col   Column of the empty cell.
+	 * @param value Digit the cell may not take.
+	 * @return True if such a solution exists.
+	 */
+	public boolean hasSolutionExcluding(int[][] board, int row, int col, int value);
+
+	/**
+	 * Loads a board for the solver to keep, so that a caller changing it one cell
+	 * at a time can pass each change on with {@link #place} and {@link #remove}
+	 * instead of having the whole board read again for every question. The
+	 * methods that take a board may replace the loaded one.
+	 *
+	 * @param board 2D int array representing the board. It isn't kept or changed.
+	 * @return False if a digit is repeated in a row, column or block.
+	 */
+	public boolean load(int[][] board);
+
+	/**
+	 * Puts n into an empty cell of the loaded board.
+	 */
+	public void place(int row, int col, int n);
+
+	/**
+	 * Empties a cell of the loaded board that holds n.
+	 */
+	public void remove(int row, int col, int n);
+
+	/**
+	 * Same as {@link #hasSolutionExcluding(int[][], int, int, int)}, asked of the
+	 * loaded board, which is left as it was.
+	 *
+	 * @param row   Row of the empty cell.
+	 * @param col   Column of the empty cell.
+	 * @param value Digit the cell may not take.
+	 * @return True if such a solution exists.
+	 */
+	public boolean hasSolutionExcluding(int row, int col, int value);
+}
@@ -0,0 +1,60 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import model.BitmaskSolver;
+import model.Puzzle;
+import model.PuzzleBatch;
+
+class PuzzleBatchTest {
+
+	@Test
+	void testSameSeedSameBoards() {
+		List<Puzzle> first = new PuzzleBatch("hard", 20, 7).generate();
+		List<Puzzle> second = new PuzzleBatch("hard", 20, 7).generate();
+		assertEquals(20, first.size());
+		for (int i = 0; i < first.size(); i++) {
+			assertArrayEquals(first.get(i).getGivens(), second.get(i).getGivens());
+		}
+	}
+
+	@Test
+	void testIndependentOfThreadCount() {
+		PuzzleBatch batch = new PuzzleBatch("medium", 20, 99);
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool many = new ForkJoinPool(4);
+		List<Puzzle> one = batch.generate(single);
+		List<Puzzle> four = batch.generate(many);
+		List<Puzzle> streamed = batch.stream().collect(Collectors.toList());
+		single.shutdown();
+		many.shutdown();
+		for (int i = 0; i < batch.size(); i++) {
+			assertArrayEquals(one.get(i).getGivens(), four.get(i).getGivens());
+			assertArrayEquals(one.get(i).getGivens(), streamed.get(i).getGivens());
+		}
+	}
+
+	@Test
+	void testBoardsDifferAndAreUnique() {
+		List<Puzzle> puzzles = new PuzzleBatch("easy", 10, 1).generate();
+		assertFalse(Arrays.deepEquals(puzzles.get(0).getGivens(), puzzles.get(1).getGivens()));
+		BitmaskSolver solver = new BitmaskSolver();
+		for (Puzzle puzzle : puzzles) {
+			assertEquals(1, solver.countSolutions(puzzle.getGivens(), 2));
+			int[][] solved = puzzle.getGivens();
+			solver.solve(solved);
+			assertArrayEquals(solved, puzzle.getSolution());
+		}
+		assertTrue(new PuzzleBatch("easy", 0, 1).generate().isEmpty());
+	}
+}
@@ -0,0 +1,118 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Puzzle;
+import model.PuzzleBatch;
+import model.PuzzleLibrary;
+import model.SudokuGame;
+
+class PuzzleLibraryTest {
+
+	@TempDir
+	Path dir;
+
+	private Path file;
+	private List<Puzzle> puzzles;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = dir.resolve("puzzles.sdkl");
+		puzzles = new PuzzleBatch("hard", 5, 3).generate();
+		try (PuzzleLibrary.Writer writer = new PuzzleLibrary.Writer(file)) {
+			for (Puzzle puzzle : puzzles) {
+				writer.add(puzzle);
+			}
+		}
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		try (PuzzleLibrary library = PuzzleLibrary.open(file)) {
+			assertEquals(5, library.size());
+			for (int i = 0; i < library.size(); i++) {
+				Puzzle puzzle = library.get(i);
+				assertArrayEquals(puzzles.get(i).getGivens(), puzzle.getGivens());
+				assertArrayEquals(puzzles.get(i).getSolution(), puzzle.getSolution());
+				assertEquals("HARD", library.getDifficulty(i));
+				assertEquals("HARD", puzzle.getDifficulty());
+				assertEquals(puzzles.get(i).getClueCount(), library.getClueCount(i));
+			}
+			assertThrows(IndexOutOfBoundsException.class, () -> library.getGiven(5, 0, 0));
+			assertThrows(IllegalArgumentException.class, () -> library.getGiven(0, 0, 9));
+			assertThrows(IllegalArgumentException.class, () -> library.getSolution(0, -1, 0));
+		}
+	}
+
+	@Test
+	void testGameFromLibrary() throws IOException {
+		try (PuzzleLibrary library = PuzzleLibrary.open(file)) {
+			SudokuGame game = new SudokuGame(library, 2);
+			for (int r = 0; r < 9; r++) {
+				for (int c = 0; c < 9; c++) {
+					int given = puzzles.get(2).getGiven(r, c);
+					assertEquals(given, game.getCell(r, c).getHeldValue());
+					assertEquals(given != 0, game.getCell(r, c).isInitial());
+					assertTrue(game.cellIsCorrect(r, c, puzzles.get(2).getSolution(r, c)));
+				}
+			}
+			assertFalse(game.checkIfSolutionIsCorrect());
+		}
+	}
+
+	@Test
+	void testNotALibrary() throws IOException {
+		Path bad = dir.resolve("bad.sdkl");
+		Files.write(bad, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13 });
+		assertThrows(IOException.class, () -> PuzzleLibrary.open(bad));
+		Puzzle premade = new Puzzle(puzzles.get(0).getGivens(), puzzles.get(0).getSolution(), "premade");
+		try (PuzzleLibrary.Writer writer = new PuzzleLibrary.Writer(dir.resolve("other.sdkl"))) {
+			assertThrows(IllegalArgumentException.class, () -> writer.add(premade));
+		}
+	}
+
+	@Test
+	void testCorruptDifficulty() throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		// difficulty byte of the second record, after the 12-byte header
+		bytes[12 + 83] = 7;
+		Files.write(file, bytes);
+		try (PuzzleLibrary library = PuzzleLibrary.open(file)) {
+			assertEquals("HARD", library.getDifficulty(0));
+			assertThrows(IOException.class, () -> library.getDifficulty(1));
+			assertThrows(IOException.class, () -> library.get(1));
+		}
+	}
+
+	@Test
+	void testCorruptCells() throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		// first cell byte of records 1 to 3: a value over 9, an empty solution
+		// and a given that differs from its solution
+		bytes[12 + 83 + 2] = (byte) 0x0C;
+		bytes[12 + 2 * 83 + 2] = (byte) 0x00;
+		int solution = bytes[12 + 3 * 83 + 2] & 0xF;
+		bytes[12 + 3 * 83 + 2] = (byte) ((solution % 9 + 1) << 4 | solution);
+		Files.write(file, bytes);
+		try (PuzzleLibrary library = PuzzleLibrary.open(file)) {
+			assertEquals(puzzles.get(0).getGivens()[0][0], library.get(0).getGivens()[0][0]);
+			assertThrows(IOException.class, () -> library.get(1));
+			assertThrows(IOException.class, () -> library.get(2));
+			assertThrows(IOException.class, () -> library.get(3));
+			assertEquals(puzzles.get(4).getClueCount(), library.get(4).getClueCount());
+		}
+	}
+}
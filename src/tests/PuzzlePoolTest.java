@@ -0,0 +1,88 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.PuzzlePool;
+import model.SudokuGame;
+
+class PuzzlePoolTest {
+
+	private PuzzlePool pool;
+
+	@BeforeEach
+	void setUp() {
+		pool = new PuzzlePool(2, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void testFillsInBackground() throws InterruptedException {
+		waitUntilFull("easy");
+		waitUntilFull("medium");
+		waitUntilFull("hard");
+		assertEquals(6, pool.getRefills());
+		assertTrue(pool.getAverageRefillMillis() > 0);
+		assertTrue(pool.getMaxRefillMillis() >= pool.getAverageRefillMillis());
+	}
+
+	@Test
+	void testPollCountsHitsAndMisses() throws InterruptedException {
+		waitUntilFull("hard");
+		// with the workers stopped nothing refills the pool behind the polls
+		pool.shutdown();
+		assertNotNull(pool.poll("hard"));
+		assertNotNull(pool.poll("HARD"));
+		assertEquals(2, pool.getHits());
+		assertNull(pool.poll("hard"));
+		assertEquals(1, pool.getMisses());
+		assertEquals(0, pool.getReadyCount("hard"));
+	}
+
+	@Test
+	void testUnpooledDifficulty() {
+		assertNull(pool.poll("premade"));
+		assertEquals(0, pool.getMisses());
+		assertEquals(0, pool.getReadyCount("premade"));
+	}
+
+	@Test
+	void testGameFromPool() throws InterruptedException {
+		waitUntilFull("easy");
+		SudokuGame game = new SudokuGame("easy", pool);
+		assertEquals(1, pool.getHits());
+		int filled = 0;
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				if (game.getCell(r, c).getHeldValue() != 0) {
+					filled++;
+				}
+			}
+		}
+		assertTrue(filled >= 49);
+		assertTrue(new SudokuGame("premade", pool).getCell(1, 0).isInitial());
+	}
+
+	@Test
+	void testBadSize() {
+		assertThrows(IllegalArgumentException.class, () -> new PuzzlePool(0, 1));
+	}
+
+	private void waitUntilFull(String difficulty) throws InterruptedException {
+		for (int i = 0; i < 500 && pool.getReadyCount(difficulty) < pool.getCapacity(); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(pool.getCapacity(), pool.getReadyCount(difficulty));
+	}
+}
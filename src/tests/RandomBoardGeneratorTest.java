@@ -4,7 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import model.BitmaskSolver;
+import model.DancingLinksSolver;
+import model.Puzzle;
 import model.RandomBoardGenerator;
+import model.SudokuSolver;
 
 class RandomBoardGeneratorTest {
 
@@ -65,4 +73,193 @@ class RandomBoardGeneratorTest {
 		genHard.printBoard();
 	}
 
+	@Test
+	void seededBoardGenTest() {
+		RandomBoardGenerator gen = new RandomBoardGenerator("hard", 20240101L);
+		assertEquals(20240101L, gen.getSeed());
+		// pinned so any change to the shuffles or their order shows up here
+		int[][] expected = {
+			{ 0, 0, 6, 0, 3, 0, 2, 0, 0 },
+			{ 3, 0, 4, 2, 8, 0, 1, 0, 0 },
+			{ 0, 0, 5, 0, 0, 6, 0, 3, 4 },
+			{ 4, 3, 0, 8, 0, 0, 9, 0, 0 },
+			{ 0, 9, 1, 3, 4, 0, 0, 0, 0 },
+			{ 0, 8, 0, 9, 6, 0, 0, 0, 7 },
+			{ 0, 0, 9, 0, 0, 3, 5, 2, 0 },
+			{ 0, 0, 0, 0, 1, 0, 0, 0, 3 },
+			{ 0, 4, 0, 0, 0, 0, 0, 1, 0 }
+		};
+		assertArrayEquals(expected, gen.getBoard());
+		assertArrayEquals(expected, new RandomBoardGenerator("HARD", new DancingLinksSolver(), 20240101L).getBoard());
+		assertFalse(Arrays.deepEquals(expected, new RandomBoardGenerator("hard", 20240102L).getBoard()));
+	}
+	
+	@Test
+	void solversAgreeWithScanSolverTest() {
+		// the generator's original column-by-column search with 27-cell scans
+		// picks the same cells to keep as the faster solvers
+		for (String difficulty : new String[] { "easy", "medium", "hard" }) {
+			for (long seed = 0; seed < 20; seed++) {
+				int[][] expected = new RandomBoardGenerator(difficulty, new ScanSolver(), seed).getBoard();
+				assertArrayEquals(expected, new RandomBoardGenerator(difficulty, new BitmaskSolver(), seed).getBoard());
+				assertArrayEquals(expected,
+						new RandomBoardGenerator(difficulty, new DancingLinksSolver(), seed).getBoard());
+				int[][] scanned = ScanSolver.copy(expected), solved = ScanSolver.copy(expected);
+				assertTrue(new ScanSolver().solve(scanned));
+				assertTrue(new BitmaskSolver().solve(solved));
+				assertArrayEquals(solved, scanned);
+			}
+		}
+	}
+
+	@Test
+	void regenerateFromSeedTest() {
+		RandomBoardGenerator gen = new RandomBoardGenerator("medium");
+		assertArrayEquals(gen.getBoard(), new RandomBoardGenerator("medium", gen.getSeed()).getBoard());
+	}
+
+	@Test
+	void puzzleTest() {
+		RandomBoardGenerator gen = new RandomBoardGenerator("easy", 42L);
+		Puzzle puzzle = gen.getPuzzle();
+		assertArrayEquals(gen.getBoard(), puzzle.getGivens());
+		assertEquals("EASY", puzzle.getDifficulty());
+		assertTrue(puzzle.hasSeed());
+		assertEquals(42L, puzzle.getSeed());
+		int[][] solved = puzzle.getGivens();
+		assertTrue(new BitmaskSolver().solve(solved));
+		assertArrayEquals(solved, puzzle.getSolution());
+	}
+
+	@Test
+	void interruptedTest() {
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(CancellationException.class, () -> new RandomBoardGenerator("hard", 7L));
+		} finally {
+			assertTrue(Thread.interrupted());
+		}
+	}
+
+	/**
+	 * The uniqueness check RandomBoardGenerator used before the solver backends:
+	 * counts up to two solutions, filling cells column by column and scanning the
+	 * row, column and block for each digit tried. Only kept to check the newer
+	 * solvers against.
+	 */
+	private static class ScanSolver implements SudokuSolver {
+
+		private final int[][] loaded = new int[9][9];
+
+		@Override
+		public int countSolutions(int[][] board, int limit) {
+			int[][] copy = copy(board);
+			return Math.min(limit, solve(copy, 0, 0, 0, limit));
+		}
+
+		@Override
+		public boolean solve(int[][] board) {
+			for (int r = 0; r < 9; r++) {
+				for (int c = 0; c < 9; c++) {
+					int n = board[r][c];
+					board[r][c] = 0;
+					boolean valid = n == 0 || cellIsValid(board, r, c, n);
+					board[r][c] = n;
+					if (!valid) {
+						return false;
+					}
+				}
+			}
+			return fill(board, 0, 0);
+		}
+
+		@Override
+		public boolean hasSolutionExcluding(int[][] board, int row, int col, int value) {
+			// the board had one solution with value put back, so a second one has
+			// the cell holding something else
+			return countSolutions(board, 2) > 1;
+		}
+
+		@Override
+		public boolean load(int[][] board) {
+			for (int r = 0; r < 9; r++) {
+				loaded[r] = board[r].clone();
+			}
+			return true;
+		}
+
+		@Override
+		public void place(int row, int col, int n) {
+			loaded[row][col] = n;
+		}
+
+		@Override
+		public void remove(int row, int col, int n) {
+			loaded[row][col] = 0;
+		}
+
+		@Override
+		public boolean hasSolutionExcluding(int row, int col, int value) {
+			return hasSolutionExcluding(loaded, row, col, value);
+		}
+
+		private int solve(int[][] board, int row, int col, int count, int limit) {
+			if (row == 9) {
+				row = 0;
+				if (++col == 9)
+					return 1 + count;
+			}
+			if (board[row][col] != 0)
+				return solve(board, row + 1, col, count, limit);
+			for (int n = 1; n <= 9 && count < limit; ++n) {
+				if (cellIsValid(board, row, col, n)) {
+					board[row][col] = n;
+					count = solve(board, row + 1, col, count, limit);
+				}
+			}
+			board[row][col] = 0;
+			return count;
+		}
+
+		// same walk as the count, stopping at the first solution and leaving it
+		// filled in. a board with no solution is left as it was
+		private boolean fill(int[][] board, int row, int col) {
+			if (row == 9) {
+				row = 0;
+				if (++col == 9)
+					return true;
+			}
+			if (board[row][col] != 0)
+				return fill(board, row + 1, col);
+			for (int n = 1; n <= 9; ++n) {
+				if (cellIsValid(board, row, col, n)) {
+					board[row][col] = n;
+					if (fill(board, row + 1, col)) {
+						return true;
+					}
+				}
+			}
+			board[row][col] = 0;
+			return false;
+		}
+
+		private static boolean cellIsValid(int[][] board, int row, int col, int n) {
+			for (int i = 0; i < 9; i++) {
+				if (board[i][col] == n || board[row][i] == n
+						|| board[(row / 3) * 3 + i / 3][(col / 3) * 3 + i % 3] == n) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int[][] copy(int[][] board) {
+			int[][] copy = new int[9][];
+			for (int r = 0; r < 9; r++) {
+				copy[r] = board[r].clone();
+			}
+			return copy;
+		}
+	}
+
 }
@@ -0,0 +1,45 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import model.SoundManager;
+
+class SoundManagerTest {
+
+	@Test
+	void testPlaysLoadedSounds() throws Exception {
+		List<String> played = new CopyOnWriteArrayList<>();
+		SoundManager sounds = new SoundManager(filename -> () -> played.add(filename));
+		sounds.loaded().get(10, TimeUnit.SECONDS);
+		sounds.playClickSound();
+		sounds.playClickSound();
+		sounds.playWinSound();
+		assertEquals(List.of("click.mp3", "click.mp3", "win.mp3"), played);
+	}
+
+	@Test
+	void testSilentAndFailedBackends() throws Exception {
+		SoundManager silent = new SoundManager(SoundManager.SILENT);
+		assertNull(silent.loaded().get(10, TimeUnit.SECONDS));
+		silent.playClickSound();
+		List<String> played = new CopyOnWriteArrayList<>();
+		SoundManager broken = new SoundManager(filename -> {
+			if (filename.equals("win.mp3")) {
+				throw new RuntimeException("Sound file not found: " + filename);
+			}
+			return () -> played.add(filename);
+		});
+		assertNull(broken.loaded().get(10, TimeUnit.SECONDS));
+		broken.playWinSound();
+		assertEquals(List.of(), played);
+		broken.playClickSound();
+		assertEquals(List.of("click.mp3"), played);
+	}
+}
@@ -81,5 +81,22 @@ class SudokuCellTest {
 		assertTrue(cell1.getCandidateValues().contains(2));
 		assertTrue(cell1.getCandidateValues().contains(3));
 	}
+	
+	@Test
+	void testCandidateMask() {
+		cell1.toggleCandidateValue(4);
+		cell1.toggleCandidateValue(9);
+		cell1.toggleCandidateValue(11);
+		assertTrue(cell1.hasCandidate(4));
+		assertEquals(1 << 4 | 1 << 9, cell1.getCandidateMask());
+		cell1.toggleCandidateValue(4);
+		assertFalse(cell1.hasCandidate(4));
+		cell1.addCandidateValue(2);
+		StringBuilder seen = new StringBuilder();
+		cell1.forEachCandidate(seen::append);
+		assertEquals("29", seen.toString());
+		cell2.toggleCandidateValue(3);
+		assertEquals(0, cell2.getCandidateMask());
+	}
 
 }
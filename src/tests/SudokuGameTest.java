@@ -1,14 +1,33 @@
 package tests;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import model.BitmaskSolver;
+import model.BoardChangedEvent;
+import model.GameCompletedEvent;
+import model.Move;
+import model.OurObserver;
+import model.Puzzle;
+import model.RandomBoardGenerator;
 import model.SudokuGame;
 
 class SudokuGameTest {
@@ -54,6 +73,18 @@ class SudokuGameTest {
 		game4.printBoard("solution");
 	}
 	
+	@Test
+	void testSeededGame() {
+		SudokuGame first = new SudokuGame("hard", 5L);
+		SudokuGame second = new SudokuGame("hard", 5L);
+		for (int r = 0; r < 9; r++) {
+			for (int c = 0; c < 9; c++) {
+				assertEquals(first.getCell(r, c).getHeldValue(), second.getCell(r, c).getHeldValue());
+			}
+		}
+		assertEquals(6, new SudokuGame("premade", 5L).getCell(1, 0).getHeldValue());
+	}
+	
 	@Test
 	void testBadInput() {
 		game5 = new SudokuGame("uhhhh");
@@ -68,6 +99,48 @@ class SudokuGameTest {
 		assertFalse(game1.checkIfSolutionIsCorrect());
 	}
 	
+	@Test
+	void testCompletion() {
+		Puzzle puzzle = new RandomBoardGenerator("easy", 11L).getPuzzle();
+		SudokuGame game = new SudokuGame(puzzle);
+		List<Object> events = new ArrayList<>();
+		game.addObserver(event -> {
+			if (event instanceof GameCompletedEvent) {
+				events.add(event);
+			}
+		});
+		assertEquals(puzzle.getClueCount(), game.getFilledCount());
+		assertEquals(puzzle.getClueCount(), game.getCorrectCount());
+		int last = -1;
+		for (int i = 0; i < 81; i++) {
+			if (game.getCell(i / 9, i % 9).getHeldValue() == 0) {
+				game.addMove(i / 9, i % 9, puzzle.getSolution(i / 9, i % 9) % 9 + 1);
+				game.addMove(i / 9, i % 9, puzzle.getSolution(i / 9, i % 9));
+				last = i;
+			}
+		}
+		assertTrue(game.checkIfSolutionIsCorrect());
+		assertEquals(1, events.size());
+		assertEquals(game, ((GameCompletedEvent) events.get(0)).getGame());
+		game.undoMove();
+		assertFalse(game.checkIfSolutionIsCorrect());
+		assertEquals(81, game.getFilledCount());
+		assertEquals(puzzle.getSolution(last / 9, last % 9) % 9 + 1, game.getCell(last / 9, last % 9).getHeldValue());
+		assertEquals(80, game.getCorrectCount());
+		game.showCorrectCell(last / 9, last % 9);
+		assertTrue(game.checkIfSolutionIsCorrect());
+		assertEquals(2, events.size());
+	}
+	
+	@Test
+	void testRevealCompletesPremade() {
+		assertFalse(game1.checkIfSolutionIsCorrect());
+		game1.addMove(0, 0, 1);
+		game1.revealBoard();
+		assertEquals(81, game1.getFilledCount());
+		assertTrue(game1.checkIfSolutionIsCorrect());
+	}
+	
 	@Test
 	void testCheckCorrectValue() {
 		assertFalse(game1.cellIsValid(0, 0, 1));
@@ -79,6 +152,193 @@ class SudokuGameTest {
 		assertTrue(game1.cellIsValid(0, 0, game1.getCell(0, 0).getHeldValue()));
 	}
 	
+	@Test
+	void testConflicts() {
+		assertTrue(game1.getConflicts().isEmpty());
+		game1.addMove(0, 0, 6);
+		assertTrue(game1.cellHasConflict(0, 0));
+		assertTrue(game1.cellHasConflict(1, 0));
+		assertFalse(game1.cellHasConflict(0, 1));
+		BitSet expected = new BitSet();
+		expected.set(0 * 9 + 0);
+		expected.set(0 * 9 + 4);
+		expected.set(1 * 9 + 0);
+		assertEquals(expected, game1.getConflicts());
+		game1.undoMove();
+		assertTrue(game1.getConflicts().isEmpty());
+		game1.addMove(0, 0, 6);
+		game1.addMove(0, 1, 4);
+		game1.resetGame();
+		assertTrue(game1.getConflicts().isEmpty());
+		assertFalse(game1.cellIsValid(0, 0, 6));
+	}
+	
+	@Test
+	void testConflictCountsMatchScan() {
+		Random random = new Random(1);
+		for (int move = 0; move < 500; move++) {
+			int r = random.nextInt(9), c = random.nextInt(9);
+			if (random.nextInt(4) == 0) {
+				game2.deleteMove(r, c);
+			} else {
+				game2.addMove(r, c, random.nextInt(9) + 1);
+			}
+			if (move % 7 == 0) {
+				game2.undoMove();
+			}
+			for (int i = 0; i < 81; i++) {
+				int val = game2.getCell(i / 9, i % 9).getHeldValue();
+				boolean clash = false;
+				for (int j = 0; j < 81; j++) {
+					boolean peer = j / 9 == i / 9 || j % 9 == i % 9 || (j / 27 == i / 27 && j % 9 / 3 == i % 9 / 3);
+					clash |= j != i && peer && game2.getCell(j / 9, j % 9).getHeldValue() == val;
+				}
+				assertEquals(!clash, game2.cellIsValid(i / 9, i % 9, val));
+				assertEquals(val != 0 && clash, game2.getConflicts().get(i));
+			}
+		}
+	}
+	
+	@Test
+	void testRedo() {
+		game1.addMove(0, 0, 4);
+		game1.addMove(0, 1, 3);
+		game1.undoMove();
+		game1.undoMove();
+		assertTrue(game1.canRedo());
+		game1.redoMove();
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+		assertEquals(0, game1.getCell(0, 1).getHeldValue());
+		game1.addMove(0, 2, 5);
+		assertFalse(game1.canRedo());
+		game1.redoMove();
+		assertEquals(0, game1.getCell(0, 1).getHeldValue());
+		assertEquals(2, game1.getHistorySize());
+	}
+	
+	@Test
+	void testHistoryLimit() {
+		game1.setHistoryLimit(2);
+		game1.addMove(0, 0, 4);
+		game1.addMove(0, 1, 3);
+		game1.addMove(0, 2, 5);
+		assertEquals(2, game1.getHistorySize());
+		game1.undoMove();
+		game1.undoMove();
+		game1.undoMove();
+		assertFalse(game1.canUndo());
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+		game1.addCandidate(0, 1, 7);
+		game1.resetGame();
+		assertEquals(0, game1.getCell(0, 0).getHeldValue());
+		assertEquals(0, game1.getCell(0, 1).getCandidateMask());
+		assertEquals(6, game1.getCell(1, 0).getHeldValue());
+		assertFalse(game1.canRedo());
+	}
+	
+	@Test
+	void testMoveRecords() {
+		game1.addCandidate(0, 0, 2);
+		game1.addMove(0, 0, 4);
+		game1.deleteMove(0, 0);
+		Move move = game1.getMove(1);
+		assertEquals(Move.Type.SET_VALUE, move.getType());
+		assertEquals(0, move.getRow());
+		assertEquals(0, move.getColumn());
+		assertEquals(0, move.getOldValue());
+		assertEquals(4, move.getNewValue());
+		assertEquals(1 << 2, move.getOldCandidates());
+		assertEquals(0, move.getNewCandidates());
+		assertEquals(Move.Type.ERASE_VALUE, game1.getMove(2).getType());
+		assertThrows(IndexOutOfBoundsException.class, () -> game1.getMove(3));
+		game1.undoMove();
+		game1.undoMove();
+		assertEquals(List.of(2), game1.getCandidates(0, 0));
+	}
+	
+	@Test
+	void testLongHistory() {
+		game1.setHistoryLimit(1000);
+		for (int move = 0; move < 100000; move++) {
+			game1.addMove(0, 0, move % 9 + 1);
+		}
+		assertEquals(1000, game1.getHistorySize());
+		while (game1.canUndo()) {
+			game1.undoMove();
+		}
+		// the oldest kept move was the 99001st, made over a 9
+		assertEquals(9, game1.getCell(0, 0).getHeldValue());
+		game1.redoMove();
+		assertEquals(1, game1.getCell(0, 0).getHeldValue());
+		game1.setHistoryLimit(0);
+		for (int move = 0; move < 5000; move++) {
+			game1.addMove(0, 1, move % 9 + 1);
+		}
+		assertEquals(5001, game1.getHistorySize());
+		assertEquals(1, game1.getMove(0).getNewValue());
+	}
+	
+	@Test
+	void testJumpTo() {
+		Random random = new Random(3);
+		List<int[]> boards = new ArrayList<>();
+		boards.add(values(game2));
+		for (int move = 0; move < 700; move++) {
+			int r = random.nextInt(9), c = random.nextInt(9);
+			if (random.nextInt(3) == 0) {
+				game2.addCandidate(r, c, random.nextInt(9) + 1);
+			} else {
+				game2.addMove(r, c, random.nextInt(10));
+			}
+			boards.add(values(game2));
+		}
+		for (int n : new int[] { 0, 699, 1, 350, 64, 63, 700, 129, 0, 500 }) {
+			game2.jumpTo(n);
+			assertEquals(n, game2.getHistorySize());
+			assertArrayEquals(boards.get(n), values(game2));
+		}
+		// a new move drops the moves after it, checkpoints included
+		game2.jumpTo(100);
+		int free = 0;
+		while (game2.getCell(free / 9, free % 9).isInitial()) {
+			free++;
+		}
+		game2.addMove(free / 9, free % 9, 0);
+		assertEquals(101, game2.getMoveCount());
+		game2.jumpTo(99);
+		assertArrayEquals(boards.get(99), values(game2));
+		game2.redoMove();
+		game2.redoMove();
+		assertEquals(101, game2.getHistorySize());
+		assertEquals(0, game2.getCell(free / 9, free % 9).getHeldValue());
+		assertThrows(IndexOutOfBoundsException.class, () -> game2.jumpTo(102));
+	}
+	
+	@Test
+	void testJumpToWithHistoryLimit() {
+		game1.setHistoryLimit(100);
+		for (int move = 0; move < 250; move++) {
+			game1.addMove(0, 0, move % 9 + 1);
+		}
+		game1.jumpTo(0);
+		// moves 150 to 249 are kept, so this is the board after move 149
+		assertEquals(149 % 9 + 1, game1.getCell(0, 0).getHeldValue());
+		game1.jumpTo(100);
+		assertEquals(249 % 9 + 1, game1.getCell(0, 0).getHeldValue());
+		game1.resetGame();
+		assertEquals(0, game1.getCell(0, 0).getHeldValue());
+		assertEquals(0, game1.getMoveCount());
+	}
+	
+	private static int[] values(SudokuGame game) {
+		int[] values = new int[81 * 2];
+		for (int i = 0; i < 81; i++) {
+			values[i] = game.getCell(i / 9, i % 9).getHeldValue();
+			values[81 + i] = game.getCell(i / 9, i % 9).getCandidateMask();
+		}
+		return values;
+	}
+	
 	@Test
 	void cannotModifyInitialValues() {
 		assertEquals(6, game1.getCell(1, 0).getHeldValue());
@@ -98,7 +358,7 @@ class SudokuGameTest {
 	
 	@Test
 	void testCandidatesAdd() {
-		ArrayList<Integer> candidates00 = game1.getCandidates(0, 0);
+		List<Integer> candidates00 = game1.getCandidates(0, 0);
 		assertEquals(0, candidates00.size());
 		game1.addCandidate(0, 0, 1);
 		game1.addCandidate(0, 0, 2);
@@ -115,9 +375,276 @@ class SudokuGameTest {
 		assertFalse(candidates00.contains(-127));
 	}
 	
+	@Test
+	void testToggleCandidateClearsValue() {
+		game1.addMove(0, 0, 4);
+		game1.toggleCandidate(0, 0, 2);
+		assertEquals(0, game1.getCell(0, 0).getHeldValue());
+		assertEquals(List.of(2), game1.getCandidates(0, 0));
+		game1.addMove(0, 0, 4);
+		game1.toggleCandidate(0, 0, 0);
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+		game1.toggleCandidate(1, 0, 3);
+		assertEquals(6, game1.getCell(1, 0).getHeldValue());
+		assertEquals(0, game1.getCell(1, 0).getCandidateMask());
+		game1.undoMove();
+		game1.undoMove();
+		game1.undoMove();
+		assertEquals(List.of(2), game1.getCandidates(0, 0));
+		game1.undoMove();
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+	}
+	
+	@Test
+	void testCellViews() {
+		game1.getCell(0, 0).setHeldValue(4);
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+		assertTrue(game1.getCell(1, 0).isInitial());
+		assertFalse(game1.getCell(0, 0).isInitial());
+		game1.getCell(1, 0).setHeldValue(2);
+		assertEquals(6, game1.getCell(1, 0).getHeldValue());
+		game1.addCandidate(0, 1, 7);
+		assertEquals(List.of(7), game1.getCandidates(0, 1));
+		assertThrows(UnsupportedOperationException.class, () -> game1.getCandidates(0, 1).add(3));
+		assertEquals(0, game2.getCell(0, 0).getCandidateValues().size());
+		assertSame(game1.getCell(0, 1), game1.getCell(0, 1));
+		assertSame(game1.getCell(4, 5), game1.getBoard().get(4).get(5));
+		assertEquals(6, game1.getBoard().get(1).get(0).getHeldValue());
+	}
+	
+	@Test
+	void testUndoRestoresCandidates() {
+		game1.addCandidate(0, 0, 3);
+		game1.addCandidate(0, 0, 5);
+		game1.addMove(0, 0, 4);
+		assertEquals(0, game1.getCell(0, 0).getCandidateMask());
+		game1.undoMove();
+		assertEquals(1 << 3 | 1 << 5, game1.getCell(0, 0).getCandidateMask());
+		game1.deleteCandidates(0, 0);
+		assertEquals(0, game1.getCell(0, 0).getCandidateMask());
+		game1.undoMove();
+		assertEquals(List.of(3, 5), game1.getCandidates(0, 0));
+	}
+	
+	@Test
+	void testBatchNotifiesOnce() {
+		List<BitSet> events = new ArrayList<>();
+		game1.addObserver(event -> {
+			if (event instanceof BoardChangedEvent) {
+				events.add(((BoardChangedEvent) event).getChangedCells());
+			}
+		});
+		game1.batch(() -> {
+			game1.addMove(0, 0, 4);
+			game1.addCandidate(0, 1, 3);
+			game1.addMove(0, 0, 5);
+		});
+		assertEquals(1, events.size());
+		BitSet cells = new BitSet();
+		cells.set(0);
+		cells.set(1);
+		assertEquals(cells, events.get(0));
+		game1.undoMove();
+		assertEquals(2, events.size());
+		assertEquals(0, game1.getCell(0, 0).getHeldValue());
+		assertEquals(0, game1.getCell(0, 1).getCandidateMask());
+		game1.redoMove();
+		assertEquals(5, game1.getCell(0, 0).getHeldValue());
+		assertEquals(List.of(3), game1.getCandidates(0, 1));
+	}
+	
+	@Test
+	void testRevealIsOneMove() {
+		List<Object> events = new ArrayList<>();
+		game1.addObserver(events::add);
+		game1.addMove(0, 0, 4);
+		game1.addCandidate(0, 1, 2);
+		events.clear();
+		game1.revealBoard();
+		assertTrue(game1.checkIfSolutionIsCorrect());
+		assertEquals(0, game1.getCell(0, 1).getCandidateMask());
+		assertEquals(2, events.size());
+		assertTrue(events.get(0) instanceof BoardChangedEvent);
+		assertTrue(events.get(1) instanceof GameCompletedEvent);
+		game1.undoMove();
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+		assertEquals(List.of(2), game1.getCandidates(0, 1));
+	}
+	
+	@Test
+	void testFailedBatchRollsBack() {
+		game1.addMove(0, 0, 4);
+		int[] before = values(game1);
+		int made = game1.getMoveCount();
+		List<Object> events = new ArrayList<>();
+		game1.addObserver(events::add);
+		assertThrows(IllegalStateException.class, () -> game1.batch(() -> {
+			game1.addMove(0, 0, 5);
+			game1.addCandidate(0, 1, 3);
+			throw new IllegalStateException();
+		}));
+		assertArrayEquals(before, values(game1));
+		assertEquals(0, game1.getCell(0, 1).getCandidateMask());
+		assertEquals(made, game1.getMoveCount());
+		assertFalse(game1.canRedo());
+		assertTrue(events.isEmpty());
+		game1.undoMove();
+		assertEquals(0, game1.getCell(0, 0).getHeldValue());
+	}
+	
+	@Test
+	void testFailedBatchPastHistoryLimit() {
+		game1.setHistoryLimit(3);
+		game1.addMove(0, 0, 4);
+		game1.addMove(0, 1, 3);
+		assertThrows(IllegalStateException.class, () -> game1.batch(() -> {
+			game1.addMove(0, 2, 5);
+			game1.addMove(0, 2, 6);
+			throw new IllegalStateException();
+		}));
+		// the limit dropped the first move but kept the second
+		assertEquals(1, game1.getMoveCount());
+		assertEquals(0, game1.getCell(0, 2).getHeldValue());
+		game1.undoMove();
+		assertEquals(0, game1.getCell(0, 1).getHeldValue());
+		assertEquals(4, game1.getCell(0, 0).getHeldValue());
+		game1.redoMove();
+		game1.setHistoryLimit(2);
+		assertThrows(IllegalStateException.class, () -> game1.batch(() -> {
+			game1.addMove(0, 2, 5);
+			game1.addMove(0, 2, 6);
+			game1.addMove(0, 2, 7);
+			throw new IllegalStateException();
+		}));
+		// every move from before the batch was dropped, so none are left
+		assertEquals(0, game1.getMoveCount());
+		assertFalse(game1.canUndo());
+		assertFalse(game1.canRedo());
+		assertEquals(0, game1.getCell(0, 2).getHeldValue());
+		assertEquals(3, game1.getCell(0, 1).getHeldValue());
+		game1.addMove(0, 2, 8);
+		game1.jumpTo(0);
+		assertEquals(0, game1.getCell(0, 2).getHeldValue());
+		assertEquals(3, game1.getCell(0, 1).getHeldValue());
+	}
+	
+	@Test
+	void testToggleCandidate() {
+		game1.toggleCandidate(0, 0, 3);
+		game1.toggleCandidate(0, 0, 5);
+		game1.toggleCandidate(0, 0, 3);
+		assertEquals(List.of(5), game1.getCandidates(0, 0));
+		assertEquals(Move.Type.TOGGLE_CANDIDATE, game1.getMove(2).getType());
+		game1.undoMove();
+		assertEquals(List.of(3, 5), game1.getCandidates(0, 0));
+		game1.toggleCandidate(1, 0, 3);
+		assertEquals(0, game1.getCell(1, 0).getCandidateMask());
+	}
+	
+	@Test
+	void testChangeKinds() {
+		List<BoardChangedEvent> events = new ArrayList<>();
+		game1.addObserver(BoardChangedEvent.class, events::add);
+		game1.addCandidate(0, 0, 2);
+		game1.addMove(0, 1, 6);
+		BoardChangedEvent clash = events.get(1);
+		assertTrue(clash.hasChanged(0, 1, BoardChangedEvent.Change.VALUE));
+		assertFalse(clash.hasChanged(0, 1, BoardChangedEvent.Change.CANDIDATES));
+		// 6 is already given at (0, 4) in the same row and (1, 0) in the same block
+		BitSet clashing = new BitSet();
+		clashing.set(1);
+		clashing.set(4);
+		clashing.set(9);
+		assertEquals(clashing, clash.getChangedCells(BoardChangedEvent.Change.CONFLICT));
+		assertEquals(clashing, clash.getChangedCells());
+		game1.addMove(0, 0, 4);
+		BoardChangedEvent fill = events.get(2);
+		assertTrue(fill.hasChanged(0, 0, BoardChangedEvent.Change.VALUE));
+		assertTrue(fill.hasChanged(0, 0, BoardChangedEvent.Change.CANDIDATES));
+		assertTrue(fill.getChangedCells(BoardChangedEvent.Change.CONFLICT).isEmpty());
+		game1.deleteMove(0, 1);
+		assertEquals(clashing, events.get(3).getChangedCells(BoardChangedEvent.Change.CONFLICT));
+	}
+	
+	@Test
+	void testRemoveObserver() {
+		List<Object> strong = new ArrayList<>();
+		List<Object> weak = new ArrayList<>();
+		OurObserver observer = strong::add;
+		OurObserver weakObserver = weak::add;
+		game1.addObserver(observer);
+		game1.addWeakObserver(weakObserver);
+		OurObserver typed = game1.addObserver(GameCompletedEvent.class, strong::add);
+		game1.addMove(0, 0, 4);
+		assertEquals(1, strong.size());
+		assertEquals(1, weak.size());
+		game1.removeObserver(observer);
+		game1.removeObserver(weakObserver);
+		game1.removeObserver(typed);
+		game1.revealBoard();
+		assertEquals(1, strong.size());
+		assertEquals(1, weak.size());
+	}
+	
+	@Test
+	void testWeakObserverIsDropped() throws Exception {
+		AtomicInteger heard = new AtomicInteger();
+		WeakReference<OurObserver> probe = addCountingWeakObserver(game1, heard);
+		game1.addMove(0, 0, 4);
+		assertEquals(1, heard.get());
+		for (int i = 0; i < 50 && probe.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(probe.get());
+		game1.addMove(0, 1, 3);
+		assertEquals(1, heard.get());
+	}
+	
+	// adds an observer that nothing but the game refers to once this returns
+	private static WeakReference<OurObserver> addCountingWeakObserver(SudokuGame game, AtomicInteger heard) {
+		OurObserver observer = event -> heard.incrementAndGet();
+		game.addWeakObserver(observer);
+		return new WeakReference<>(observer);
+	}
+	
+	@Test
+	void testCreateAsync() throws Exception {
+		CompletableFuture<SudokuGame> future = SudokuGame.createAsync("HARD", null);
+		SudokuGame game = future.get(10, TimeUnit.SECONDS);
+		assertEquals(game.getFilledCount(), game.getCorrectCount());
+		game.revealBoard();
+		assertTrue(game.checkIfSolutionIsCorrect());
+	}
+	
+	@Test
+	void testCancelInterruptsGeneration() throws Exception {
+		CountDownLatch checking = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		// holds up the first uniqueness check until the thread is interrupted
+		BitmaskSolver blocking = new BitmaskSolver() {
+			@Override
+			public boolean hasSolutionExcluding(int row, int col, int value) {
+				checking.countDown();
+				try {
+					new CountDownLatch(1).await();
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+					Thread.currentThread().interrupt();
+				}
+				return super.hasSolutionExcluding(row, col, value);
+			}
+		};
+		CompletableFuture<SudokuGame> future = SudokuGame.generateAsync("HARD", blocking);
+		assertTrue(checking.await(10, TimeUnit.SECONDS));
+		assertTrue(future.cancel(true));
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+		assertTrue(future.isCancelled());
+	}
+	
 //	@Test
 //	void testCandidatesRemove() {
-//		ArrayList<Integer> candidates00 = game1.getCandidates(0, 0);
+//		List<Integer> candidates00 = game1.getCandidates(0, 0);
 //		game1.addCandidate(0, 0, 1);
 //		game1.addCandidate(0, 0, 2);
 //		game1.addCandidate(0, 0, 3);
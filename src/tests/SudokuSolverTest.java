@@ -0,0 +1,153 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.BitmaskSolver;
+import model.DancingLinksSolver;
+import model.SudokuSolver;
+
+class SudokuSolverTest {
+
+	// https://sandiway.arizona.edu/sudoku/wildcatjan17p.gif, same as the premade game
+	private static final String PREMADE = "000260701680070090190004500820100040004602900050003028009300074040050036703018000";
+	// needs a lot of backtracking unless the solver picks its cells well
+	private static final String HARD = "000000000000003085001020000000507000004000100090000000500000073002010000000040009";
+
+	private SudokuSolver[] solvers = { new BitmaskSolver(), new DancingLinksSolver() };
+
+	@Test
+	void testCountUniqueSolution() {
+		for (SudokuSolver solver : solvers) {
+			int[][] board = parse(PREMADE);
+			assertEquals(1, solver.countSolutions(board, 2));
+			assertEquals(parse(PREMADE)[0][3], board[0][3]);
+			assertEquals(0, board[0][0]);
+			// solvers are reused between calls
+			assertEquals(1, solver.countSolutions(board, 2));
+		}
+	}
+
+	@Test
+	void testCountStopsAtLimit() {
+		for (SudokuSolver solver : solvers) {
+			assertEquals(2, solver.countSolutions(new int[9][9], 2));
+			assertEquals(5, solver.countSolutions(new int[9][9], 5));
+		}
+	}
+
+	@Test
+	void testConflictingGivens() {
+		for (SudokuSolver solver : solvers) {
+			int[][] board = parse(PREMADE);
+			board[0][0] = 2;
+			assertEquals(0, solver.countSolutions(board, 2));
+			assertFalse(solver.solve(board));
+			assertEquals(0, board[0][1]);
+		}
+	}
+
+	@Test
+	void testSolve() {
+		for (SudokuSolver solver : solvers) {
+			int[][] board = parse(PREMADE);
+			assertTrue(solver.solve(board));
+			assertSolved(PREMADE, board);
+			board = parse(HARD);
+			assertTrue(solver.solve(board));
+			assertSolved(HARD, board);
+			assertEquals(1, solver.countSolutions(parse(HARD), 2));
+		}
+	}
+
+	@Test
+	void testSolutionExcludingCell() {
+		for (SudokuSolver solver : solvers) {
+			int[][] board = parse(PREMADE);
+			int[][] solved = parse(PREMADE);
+			solver.solve(solved);
+			int value = solved[0][0];
+			// unique puzzle, so the cell can't hold anything but its solution value
+			assertFalse(solver.hasSolutionExcluding(board, 0, 0, value));
+			assertTrue(solver.hasSolutionExcluding(board, 0, 0, value % 9 + 1));
+			assertEquals(0, board[0][0]);
+			// a full grid with one cell emptied is always unique
+			solved[0][0] = 0;
+			assertFalse(solver.hasSolutionExcluding(solved, 0, 0, value));
+			assertTrue(solver.hasSolutionExcluding(new int[9][9], 4, 4, 5));
+		}
+	}
+
+	@Test
+	void testLoadedBoard() {
+		for (SudokuSolver solver : solvers) {
+			int[][] solved = parse(PREMADE);
+			solver.solve(solved);
+			int value = solved[0][0];
+			assertTrue(solver.load(solved));
+			solver.remove(0, 0, value);
+			assertFalse(solver.hasSolutionExcluding(0, 0, value));
+			// emptying a cell of the same row, column and block still leaves one answer
+			solver.remove(0, 1, solved[0][1]);
+			solver.remove(1, 0, solved[1][0]);
+			boolean expected = new BitmaskSolver().hasSolutionExcluding(blank(solved, 0, 0, 1, 0, 0, 1), 0, 0, value);
+			assertEquals(expected, solver.hasSolutionExcluding(0, 0, value));
+			solver.place(0, 1, solved[0][1]);
+			solver.place(1, 0, solved[1][0]);
+			assertFalse(solver.hasSolutionExcluding(0, 0, value));
+			// the board passed to load isn't changed or kept
+			assertEquals(value, solved[0][0]);
+			int[][] empty = new int[9][9];
+			assertTrue(solver.load(empty));
+			assertTrue(solver.hasSolutionExcluding(4, 4, 5));
+			int[][] clash = parse(PREMADE);
+			clash[0][0] = 2;
+			assertFalse(solver.load(clash));
+		}
+	}
+
+	/**
+	 * @return A copy of board with the cells at the given row, col pairs emptied.
+	 */
+	private static int[][] blank(int[][] board, int... cells) {
+		int[][] copy = new int[9][];
+		for (int r = 0; r < 9; r++) {
+			copy[r] = board[r].clone();
+		}
+		for (int i = 0; i < cells.length; i += 2) {
+			copy[cells[i]][cells[i + 1]] = 0;
+		}
+		return copy;
+	}
+
+	private static int[][] parse(String s) {
+		int[][] board = new int[9][9];
+		for (int i = 0; i < 81; i++) {
+			board[i / 9][i % 9] = s.charAt(i) - '0';
+		}
+		return board;
+	}
+
+	private static void assertSolved(String puzzle, int[][] board) {
+		for (int i = 0; i < 9; i++) {
+			int rowSeen = 0, colSeen = 0, blockSeen = 0;
+			for (int j = 0; j < 9; j++) {
+				rowSeen |= 1 << board[i][j];
+				colSeen |= 1 << board[j][i];
+				blockSeen |= 1 << board[(i / 3) * 3 + j / 3][(i % 3) * 3 + j % 3];
+			}
+			assertEquals(0x3FE, rowSeen);
+			assertEquals(0x3FE, colSeen);
+			assertEquals(0x3FE, blockSeen);
+		}
+		for (int i = 0; i < 81; i++) {
+			int given = puzzle.charAt(i) - '0';
+			if (given != 0) {
+				assertEquals(given, board[i / 9][i % 9]);
+			}
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package view_controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Pre-rendered images of everything the board draws inside a cell: the nine
+ * value digits, the nine candidate digits in black and in the faint hover
+ * colour, and the error marker. They are drawn once per cell size into a single
+ * image, one cell-sized tile each, already placed where they go in a cell, so
+ * drawing one is a single image copy with no fonts or strings involved.
+ *
+ * The image is drawn at the screen's output scale, so on a high-DPI screen a
+ * tile holds as many pixels as the cell it is copied into and the digits stay
+ * as sharp as text drawn straight onto the board.
+ *
+ * Atlases are built on the JavaFX thread, the first time a cell size and scale
+ * are asked for, and shared after that.
+ */
+final class GlyphAtlas {
+
+	private static final Map<String, GlyphAtlas> atlases = new HashMap<>();
+
+	private static final int VALUES = 0;
+	private static final int CANDIDATES = 1;
+	private static final int HOVERS = 2;
+	private static final int ERROR = 3;
+
+	private static final int VALUE_FONT_SIZE = 24;
+	private static final Color HOVER = Color.rgb(130, 103, 110, 0.5);
+
+	private final int cellSize;
+	// image pixels per board pixel
+	private final double scale;
+	private final Image image;
+
+	private GlyphAtlas(int cellSize, double scale) {
+		this.cellSize = cellSize;
+		this.scale = scale;
+		Canvas canvas = new Canvas(Math.ceil(9 * cellSize * scale), Math.ceil(4 * cellSize * scale));
+		GraphicsContext g = canvas.getGraphicsContext2D();
+		g.scale(scale, scale);
+		g.setFill(Color.BLACK);
+		g.setFont(new Font("Arial", VALUE_FONT_SIZE));
+		for (int n = 1; n <= 9; n++) {
+			g.fillText(String.valueOf(n), tileX(n) + cellSize / 2 - VALUE_FONT_SIZE / 4,
+					tileY(VALUES) + cellSize / 2 + VALUE_FONT_SIZE / 4);
+		}
+		g.setFont(new Font("Arial", 12));
+		for (int n = 1; n <= 9; n++) {
+			g.fillText(String.valueOf(n), tileX(n) + spotX(n) + 2, tileY(CANDIDATES) + spotY(n) + 13);
+		}
+		g.setFill(HOVER);
+		for (int n = 1; n <= 9; n++) {
+			g.fillText(String.valueOf(n), tileX(n) + spotX(n) + 2, tileY(HOVERS) + spotY(n) + 13);
+		}
+		g.setStroke(Color.DARKRED);
+		g.setLineWidth(3);
+		g.strokeOval(tileX(1) + cellSize - 10, tileY(ERROR) + cellSize - 10, 5, 5);
+		SnapshotParameters parameters = new SnapshotParameters();
+		parameters.setFill(Color.TRANSPARENT);
+		image = canvas.snapshot(parameters, null);
+	}
+
+	/**
+	 * @param scale Output scale of the screen the board is shown on, such as
+	 *              {@link javafx.stage.Screen#getOutputScaleX()}.
+	 * @return The atlas for cells of that size at that scale, built if it hasn't
+	 *         been yet.
+	 */
+	static GlyphAtlas forCellSize(int cellSize, double scale) {
+		return atlases.computeIfAbsent(cellSize + "@" + scale, key -> new GlyphAtlas(cellSize, scale));
+	}
+
+	/**
+	 * Draws value n in the cell whose top left corner is at x, y.
+	 */
+	void drawValue(GraphicsContext g, int n, double x, double y) {
+		copy(g, tileX(n), tileY(VALUES), cellSize, cellSize, x, y);
+	}
+
+	/**
+	 * Draws candidate n in its spot of the cell whose top left corner is at x, y.
+	 * Only the spot is copied, not the whole tile.
+	 */
+	void drawCandidate(GraphicsContext g, int n, double x, double y) {
+		drawSpot(g, CANDIDATES, n, x, y);
+	}
+
+	/**
+	 * Draws candidate n faintly, as a preview of clicking its spot.
+	 */
+	void drawHover(GraphicsContext g, int n, double x, double y) {
+		drawSpot(g, HOVERS, n, x, y);
+	}
+
+	/**
+	 * Draws the error marker in the bottom right corner of the cell.
+	 */
+	void drawError(GraphicsContext g, double x, double y) {
+		copy(g, tileX(1), tileY(ERROR), cellSize, cellSize, x, y);
+	}
+
+	private void drawSpot(GraphicsContext g, int row, int n, double x, double y) {
+		copy(g, tileX(n) + spotX(n), tileY(row) + spotY(n), 14, 16, x + spotX(n), y + spotY(n));
+	}
+
+	/*
+	 * copies the w by h area at sx, sy of the atlas, in board pixels, to x, y.
+	 * the source is scaled up to the image's own pixels
+	 */
+	private void copy(GraphicsContext g, double sx, double sy, double w, double h, double x, double y) {
+		g.drawImage(image, sx * scale, sy * scale, w * scale, h * scale, x, y, w, h);
+	}
+
+	private int tileX(int n) {
+		return (n - 1) * cellSize;
+	}
+
+	private int tileY(int row) {
+		return row * cellSize;
+	}
+
+	/*
+	 * left and top of candidate n's spot in a cell. the text goes 2 pixels in
+	 * and 13 down to its baseline
+	 */
+	private static int spotX(int n) {
+		return 3 + (n - 1) % 3 * 14;
+	}
+
+	private static int spotY(int n) {
+		return 2 + (n - 1) / 3 * 15;
+	}
+}
@@ -0,0 +1,50 @@
+package view_controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+
+/**
+ * The GUI's images, each decoded once and shared by every view that shows it.
+ *
+ * Images are loaded in the background: asking for one returns straight away,
+ * and JavaFX decodes it on its loader threads and shows it once it is ready.
+ * {@link #preload()} starts every button image at once when the application
+ * starts, so they decode in parallel while the rest of the view is built.
+ */
+final class ImageCache {
+
+	static final String NOTES = "./Images/Notes-icon.png";
+	static final String ERASE = "./Images/eraseButtonImage.jpg";
+	static final String UNDO = "./Images/undoButton.png";
+	static final String RESET = "./Images/resetButton.png";
+	static final String REVEAL_CELL = "./Images/revealCellButton.png";
+	static final String REVEAL = "./Images/revealButton.png";
+	static final String PAUSE = "./Images/Pause-Button.png";
+	static final String NEW_GAME = "./Images/newGameButton.png";
+
+	private static final String[] BUTTONS = { NOTES, ERASE, UNDO, RESET, REVEAL_CELL, REVEAL, PAUSE, NEW_GAME };
+
+	private static final Map<String, Image> images = new ConcurrentHashMap<>();
+
+	private ImageCache() {
+	}
+
+	/**
+	 * Starts loading every button image.
+	 */
+	static void preload() {
+		for (String path : BUTTONS) {
+			get(path);
+		}
+	}
+
+	/**
+	 * @param path Image location, as for {@link Image#Image(String)}.
+	 * @return The shared image, which may still be loading.
+	 */
+	static Image get(String path) {
+		return images.computeIfAbsent(path, p -> new Image(p, true));
+	}
+}
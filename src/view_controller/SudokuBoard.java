@@ -1,13 +1,16 @@
 package view_controller;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Stack;
 
+import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
+import javafx.stage.Screen;
+import model.BoardChangedEvent;
+import model.GameCompletedEvent;
 import model.OurObserver;
 import model.SoundManager;
 import model.SudokuCell;
@@ -15,11 +18,31 @@ import model.SudokuGame;
 
 /**
  * GUI representation of a Sudoku game board.
+ *
+ * The board is three canvases stacked on each other. The bottom one holds the
+ * background and grid lines, drawn once. The middle one holds the selection and
+ * the candidate previewed under the mouse, so moving the mouse only touches it.
+ * The top one holds values, candidates and error markers, and keeps a set of
+ * dirty cells fed by the game's change events so that only changed cells are
+ * cleared and redrawn.
+ *
+ * Nothing is drawn while handling an event. Game changes, selection changes and
+ * mouse moves only note what needs drawing and start a timer that draws it all
+ * on the next pulse and stops again, so a burst of events costs one frame.
  */
-public class SudokuBoard extends Canvas implements OurObserver{
+public class SudokuBoard extends Pane implements OurObserver{
+
+	private static final Color BACKGROUND = Color.rgb(61, 199, 201);
 
 	private SudokuGame game;
+	// background and grid lines
+	private GraphicsContext gridLayer;
+	// selection and hover preview
+	private GraphicsContext overlay;
+	// values, candidates and error markers
 	private GraphicsContext graphics;
+	// digits and error marker drawn for this board's cell size
+	private GlyphAtlas glyphs;
 	
 	private int boardSize;
 	private int cellSize;
@@ -29,17 +52,29 @@ public class SudokuBoard extends Canvas implements OurObserver{
 	
 	private int column, row;
 	private boolean notes;
+	// candidate previewed under the mouse in the selected cell, or 0
+	private int hover;
+	// what the next frame draws: cells of the values layer, cells of the
+	// overlay, or, if everythingDirty, every cell of both
+	private final BitSet dirty = new BitSet(81);
+	private final BitSet overlayDirty = new BitSet(81);
+	private boolean everythingDirty;
+	private final AnimationTimer renderer = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			stop();
+			render();
+		}
+	};
 	
-    private SoundManager soundManager = new SoundManager();
+    private SoundManager soundManager;
     private Stack<SudokuCell> cellStack;
-    SudokuBoard board = new SudokuBoard(game, boardSize, soundManager);
 
 	
 	/*
 	 * board gui for the sudoku game
 	 */
 	public SudokuBoard(SudokuGame game, int boardSize, SoundManager soundManager) {
-		super(boardSize, boardSize);
 		this.boardSize = boardSize;
 		this.soundManager = soundManager;
 		this.cellStack = new Stack<>();
@@ -47,38 +82,96 @@ public class SudokuBoard extends Canvas implements OurObserver{
 		this.game = game;
 		column = 0;
 		row = 0;
-		graphics = this.getGraphicsContext2D();
+		Canvas grid = new Canvas(boardSize, boardSize);
+		Canvas selection = new Canvas(boardSize, boardSize);
+		Canvas values = new Canvas(boardSize, boardSize);
+		getChildren().addAll(grid, selection, values);
+		gridLayer = grid.getGraphicsContext2D();
+		overlay = selection.getGraphicsContext2D();
+		graphics = values.getGraphicsContext2D();
+		glyphs = GlyphAtlas.forCellSize(cellSize, Screen.getPrimary().getOutputScaleX());
 		clickCellHandler(null);
+		drawBoard();
+		drawLines();
 		drawEverything();
 	}
 	
 	/*
-	 * Description: draws everything when the sudoku game changes state
+	 * Description: redraws the cells the game says changed, and plays the win
+	 * sound when the game is completed. anything else redraws every value
 	 * @param theObserved
 	 */
 	@Override
 	public void update(Object theObserved) {
-		drawEverything();
+		if (theObserved instanceof GameCompletedEvent) {
+			if (soundManager != null) {
+				soundManager.playWinSound();
+			}
+			return;
+		}
+		if (theObserved instanceof BoardChangedEvent) {
+			BitSet changed = ((BoardChangedEvent) theObserved).getChangedCells();
+			if (changed.get(row * 9 + column)) {
+				// the hover preview goes once the selected cell has a value
+				overlayDirty.set(row * 9 + column);
+			}
+			dirty.or(changed);
+		} else {
+			everythingDirty = true;
+		}
+		renderer.start();
+	}
+
+	/*
+	 * Description: draws whatever has been marked dirty since the last frame
+	 */
+	private void render() {
+		if (everythingDirty) {
+			drawEverything();
+			return;
+		}
+		for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+			int r = i / 9, c = i % 9;
+			graphics.clearRect(boardStartX + c * cellSize, boardStartY + r * cellSize, cellSize, cellSize);
+			drawValue(r, c);
+			drawCandidates(r, c);
+			if (game.cellHasConflict(r, c)) {
+				drawError(r, c);
+			}
+		}
+		for (int i = overlayDirty.nextSetBit(0); i >= 0; i = overlayDirty.nextSetBit(i + 1)) {
+			overlay.clearRect(boardStartX + i % 9 * cellSize, boardStartY + i / 9 * cellSize, cellSize, cellSize);
+		}
+		if (overlayDirty.get(row * 9 + column)) {
+			selectCell(column, row);
+			drawHover();
+		}
+		dirty.clear();
+		overlayDirty.clear();
 	}
 	
 	/*
-	 * Description: draws the entire sudoku board
+	 * Description: draws everything above the grid
 	 */
 	private void drawEverything() {
-		drawBoard();
-		selectCell(column, row);
-		drawLines();
+		everythingDirty = false;
+		dirty.clear();
+		overlayDirty.clear();
+		graphics.clearRect(boardStartX, boardStartY, boardSize, boardSize);
 		drawValues();
 		drawCandidates();
 		drawErrors();
+		overlay.clearRect(boardStartX, boardStartY, boardSize, boardSize);
+		selectCell(column, row);
+		drawHover();
 	}
 	
 	/*
 	 * Description: draws the background of the board
 	 */
 	private void drawBoard() {
-		graphics.setFill(Color.rgb(61, 199, 201));
-		graphics.fillRect(boardStartX, boardStartY, boardSize, boardSize);
+		gridLayer.setFill(BACKGROUND);
+		gridLayer.fillRect(boardStartX, boardStartY, boardSize, boardSize);
 	}
 	
 	/*
@@ -88,12 +181,12 @@ public class SudokuBoard extends Canvas implements OurObserver{
 		int startX = boardStartX;
 		int startY = boardStartY;
 		for (int i=0; i < 10 ; i++) {
-			graphics.setLineWidth(1);
+			gridLayer.setLineWidth(1);
 			if (i % 3 == 0) {
-				graphics.setLineWidth(3);
+				gridLayer.setLineWidth(3);
 			}
-			graphics.strokeLine(startX, boardStartY, startX, boardStartY + boardSize);
-			graphics.strokeLine(boardStartX, startY, boardStartX + boardSize, startY);
+			gridLayer.strokeLine(startX, boardStartY, startX, boardStartY + boardSize);
+			gridLayer.strokeLine(boardStartX, startY, boardStartX + boardSize, startY);
 			startX += cellSize;
 			startY += cellSize;
 		}
@@ -103,7 +196,7 @@ public class SudokuBoard extends Canvas implements OurObserver{
 	 * Description: paints the selected cell white
 	 */
 	private void selectCell(int column, int row) {
-		graphics.setFill(Color.AZURE);
+		overlay.setFill(Color.AZURE);
 
 		int offsetX1 = 1, offsetX2 = 1;
 		int offsetY1 = 1, offsetY2 = 1;
@@ -119,106 +212,54 @@ public class SudokuBoard extends Canvas implements OurObserver{
 		if ((row + 1) % 3 == 0) {
 			offsetY2 ++;
 		}
-		graphics.fillRect(column * cellSize + offsetX1, row * cellSize + offsetY1, cellSize - (offsetX1 + offsetX2), cellSize - (offsetY1 + offsetY2));
+		overlay.fillRect(column * cellSize + offsetX1, row * cellSize + offsetY1, cellSize - (offsetX1 + offsetX2), cellSize - (offsetY1 + offsetY2));
+	}
+
+	/*
+	 * Description: moves the selection, marking the cells it left and entered
+	 */
+	private void moveSelection(int newColumn, int newRow) {
+		overlayDirty.set(row * 9 + column);
+		column = newColumn;
+		row = newRow;
+		hover = 0;
+		overlayDirty.set(row * 9 + column);
+		renderer.start();
 	}
 	
 	/*
 	 * Description: Draws the held values of the sudoku cells
 	 */
 	private void drawValues() {
-		int fontSize = 24;
-		
-		ArrayList<ArrayList<SudokuCell>> board = game.getBoard();
-		for (int row=0 ; row < board.size() ; row++) {
-			for (int column=0 ; column < board.get(row).size() ; column++) {
-				SudokuCell cell = board.get(row).get(column);
-				if (cell.getHeldValue() != 0) {
-					graphics.setFill(Color.BLACK);
-					int x = (column * cellSize + cellSize/2) - fontSize/4;
-					int y = (row * cellSize + cellSize/2) + fontSize/4;
-					String text = String.valueOf(cell.getHeldValue());
-					graphics.setFont(new Font("Arial", fontSize));
-					graphics.fillText(text, x, y);
-				}
+		for (int row=0 ; row < 9 ; row++) {
+			for (int column=0 ; column < 9 ; column++) {
+				drawValue(row, column);
 			}
 		}
 	}
+
+	private void drawValue(int row, int column) {
+		int value = game.getCell(row, column).getHeldValue();
+		if (value != 0) {
+			glyphs.drawValue(graphics, value, column * cellSize, row * cellSize);
+		}
+	}
 	
 	/*
 	 * Description: Draws the candidate values of the sudoku cell
 	 */
 	private void drawCandidates() {
-		for (int r=0; r < game.getBoard().size() ; r++) {
-			for (int c=0; c < game.getBoard().get(r).size() ; c++) {
-				ArrayList<Integer> candidates = game.getCandidates(r, c);
-				if (!candidates.isEmpty()) {
-					graphics.setFont(new Font("Arial", 12));
-					if (candidates.contains(1)) {
-						drawOne(c, r);
-					}
-					if (candidates.contains(2)) {
-						drawTwo(c, r);
-					}
-					if (candidates.contains(3)) {
-						drawThree(c, r);
-					}
-					if (candidates.contains(4)) {
-						drawFour(c, r);
-					}
-					if (candidates.contains(5)) {
-						drawFive(c, r);
-					}
-					if (candidates.contains(6)) {
-						drawSix(c, r);
-					}
-					if (candidates.contains(7)) {
-						drawSeven(c, r);
-					}
-					if (candidates.contains(8)) {
-						drawEight(c, r);
-					}
-					if (candidates.contains(9)) {
-						drawNine(c, r);
-					}
-				}
+		for (int r=0; r < 9 ; r++) {
+			for (int c=0; c < 9 ; c++) {
+				drawCandidates(r, c);
 			}
 		}
 	}
 
-	private void drawOne(int c, int r) {
-		graphics.fillText("1", c * cellSize + 5, r * cellSize + 15);
-	}
-	
-	private void drawTwo(int c, int r) {
-		graphics.fillText("2", c * cellSize + 19, r * cellSize + 15);
-	}
-	
-	private void drawThree(int c, int r) {
-		graphics.fillText("3", c * cellSize + 33, r * cellSize + 15);
-	}
-	
-	private void drawFour(int c, int r) {
-		graphics.fillText("4", c * cellSize + 5, r * cellSize + 30);
-	}
-	
-	private void drawFive(int c, int r) {
-		graphics.fillText("5", c * cellSize + 19, r * cellSize + 30);
-	}
-	
-	private void drawSix(int c, int r) {
-		graphics.fillText("6", c * cellSize + 33, r * cellSize + 30);
-	}
-	
-	private void drawSeven(int c, int r) {
-		graphics.fillText("7", c * cellSize + 5, r * cellSize + 45);
-	}
-	
-	private void drawEight(int c, int r) {
-		graphics.fillText("8", c * cellSize + 19, r * cellSize + 45);
-	}
-	
-	private void drawNine(int c, int r) {
-		graphics.fillText("9", c * cellSize + 33, r * cellSize + 45);
+	private void drawCandidates(int r, int c) {
+		for (int mask = game.getCell(r, c).getCandidateMask(); mask != 0; mask &= mask - 1) {
+			glyphs.drawCandidate(graphics, Integer.numberOfTrailingZeros(mask), c * cellSize, r * cellSize);
+		}
 	}
 	
 	/*
@@ -226,179 +267,98 @@ public class SudokuBoard extends Canvas implements OurObserver{
 	 */
 	private void clickCellHandler(SudokuCell cell) {
 		this.setOnMouseMoved(event -> {
+			int candidate = 0;
 			if (game.getCell(row, column).getHeldValue() == 0) {
-				selectCell(column, row);
-				drawEverything();
-				drawMouseOver(event);
+				int xCell = (int) (event.getX() - (column * cellSize));
+				int yCell = (int) (event.getY() - (row * cellSize));
+				candidate = candidateAt(xCell, yCell);
+			}
+			if (candidate != hover) {
+				hover = candidate;
+				overlayDirty.set(row * 9 + column);
+				renderer.start();
 			}
 		});
 		this.setOnMouseClicked(event -> {
-			soundManager.playClickSound(); // This play the click.mp3 sound when you click on the cell.
+			if (soundManager != null) {
+				soundManager.playClickSound(); // This play the click.mp3 sound when you click on the cell.
+			}
 			cellStack.push(cell);
+			int candidate = 0;
 			if (game.getCell(row, column).getHeldValue() == 0) {
 				int xCell = (int) (event.getX() - (column * cellSize));
 				int yCell = (int) (event.getY() - (row * cellSize));
-				
-				ArrayList<Integer> candidates = game.getCell(row, column).getCandidateValues();
-				if (xCell > 0 && xCell < 20) {
-					if (yCell > 0 && yCell < 20) {
-						if (!candidates.contains(1)) {
-							candidates.add(1);
-						}
-						else {
-							candidates.removeIf(num -> num == 1);
-						}
-					}
-					if (yCell > 20 && yCell < 35) {
-						if (!candidates.contains(4)) {
-							candidates.add(4);
-						}
-						else {
-							candidates.removeIf(num -> num == 4);
-						}
-					}
-					if (yCell > 35 && yCell < 60) {
-						if (!candidates.contains(7)) {
-							candidates.add(7);
-						}
-						else {
-							candidates.removeIf(num -> num == 7);
-						}
-					}
-				}
-				if (xCell > 20 && xCell < 35) {
-					if (yCell > 0 && yCell < 20) {
-						if (!candidates.contains(2)) {
-							candidates.add(2);
-						}
-						else {
-							candidates.removeIf(num -> num == 2);
-						}
-					}
-					if (yCell > 20 && yCell < 35) {
-						if (!candidates.contains(5)) {
-							candidates.add(5);
-						}
-						else {
-							candidates.removeIf(num -> num == 5);
-						}
-					}
-					if (yCell > 35 && yCell < 60) {
-						if (!candidates.contains(8)) {
-							candidates.add(8);
-						}
-						else {
-							candidates.removeIf(num -> num == 8);
-						}
-					}
-				}
-				if (xCell > 35 && xCell < 60) {
-					if (yCell > 0 && yCell < 20) {
-						if (!candidates.contains(3)) {
-							candidates.add(3);
-						}
-						else {
-							candidates.removeIf(num -> num == 3);
-						}
-					}
-					if (yCell > 20 && yCell < 35) {
-						if (!candidates.contains(6)) {
-							candidates.add(6);
-						}
-						else {
-							candidates.removeIf(num -> num == 6);
-						}
-					}
-					if (yCell > 35 && yCell < 60) {
-						if (!candidates.contains(9)) {
-							candidates.add(9);
-						}
-						else {
-							candidates.removeIf(num -> num == 9);
-						}
-					}
-				}
-				else {
-					double x = event.getX();
-					double y = event.getY();
-					column = (int) x/cellSize;
-					row = (int) y/cellSize;
-				}
-				game.notifyObservers(game);
+				candidate = candidateAt(xCell, yCell);
+			}
+			if (candidate != 0) {
+				// the game tells its observers, this board included, once
+				game.toggleCandidate(row, column, candidate);
 			}
 			else {
 				double x = event.getX();
 				double y = event.getY();
-				column = (int) x/cellSize;
-				row = (int) y/cellSize;
+				moveSelection((int) x/cellSize, (int) y/cellSize);
 			}
-			game.notifyObservers(game);
-
 		});
 	}
+
+	/*
+	 * Description: finds which candidate's spot of the selected cell was clicked
+	 * @return the candidate, or 0 if the click wasn't on one
+	 */
+	private int candidateAt(int xCell, int yCell) {
+		int spotColumn, spotRow;
+		if (xCell > 0 && xCell < 20) {
+			spotColumn = 0;
+		}
+		else if (xCell > 20 && xCell < 35) {
+			spotColumn = 1;
+		}
+		else if (xCell > 35 && xCell < 60) {
+			spotColumn = 2;
+		}
+		else {
+			return 0;
+		}
+		if (yCell > 0 && yCell < 20) {
+			spotRow = 0;
+		}
+		else if (yCell > 20 && yCell < 35) {
+			spotRow = 1;
+		}
+		else if (yCell > 35 && yCell < 60) {
+			spotRow = 2;
+		}
+		else {
+			return 0;
+		}
+		return spotRow * 3 + spotColumn + 1;
+	}
 	
 	/*
 	 * Description: When a user adds an invalid held value an error symbol is drawn
 	 * on the bottom right corner of the cell and any other cells the value conflicts with.
 	 */
 	private void drawErrors() {
-		graphics.setStroke(Color.DARKRED);
-		for (int r=0; r < game.getBoard().size() ; r++) {
-			for (int c=0; c < game.getBoard().get(r).size() ; c++) {
-				if (!game.cellIsValid(r, c, game.getCell(r, c).getHeldValue()) && (game.getCell(r, c).getHeldValue() != 0)) {
-					graphics.strokeOval((c+1) * cellSize - 10, (r+1) * cellSize - 10, 5, 5);
-				}
-			}
+		BitSet conflicts = game.getConflicts();
+		for (int i = conflicts.nextSetBit(0); i >= 0; i = conflicts.nextSetBit(i + 1)) {
+			drawError(i / 9, i % 9);
 		}
-		graphics.setStroke(Color.BLACK);
+	}
+
+	private void drawError(int r, int c) {
+		glyphs.drawError(graphics, c * cellSize, r * cellSize);
 	}
 	
 	
 	/*
-	 * Description: when hovering over a selected cell, the candidate numbers are drawn.
+	 * Description: when hovering over a selected cell, the candidate number under
+	 * the mouse is drawn faintly.
 	 */
-	private void drawMouseOver(MouseEvent event) {
-		graphics.setFill(Color.rgb(130, 103, 110, 0.5));
-		graphics.setFont(new Font("Arial", 12));
-		
-		int xCell = (int) (event.getX() - (column * cellSize));
-		int yCell = (int) (event.getY() - (row * cellSize));
-
-		if (xCell > 0 && xCell < 20) {
-			if (yCell > 0 && yCell < 20) {
-				drawOne(column, row);
-			}
-			if (yCell > 20 && yCell < 35) {
-				drawFour(column, row);
-			}
-			if (yCell > 35 && yCell < 60) {
-				drawSeven(column, row);
-			}
-		}
-		if (xCell > 20 && xCell < 35) {
-			if (yCell > 0 && yCell < 20) {
-				drawTwo(column, row);
-			}
-			if (yCell > 20 && yCell < 35) {
-				drawFive(column, row);
-			}
-			if (yCell > 35 && yCell < 60) {
-				drawEight(column, row);
-			}
-		}
-		if (xCell > 35 && xCell < 60) {
-			if (yCell > 0 && yCell < 20) {
-				drawThree(column, row);
-			}
-			if (yCell > 20 && yCell < 35) {
-				drawSix(column, row);
-			}
-			if (yCell > 35 && yCell < 60) {
-				drawNine(column, row);
-			}
+	private void drawHover() {
+		if (hover != 0 && game.getCell(row, column).getHeldValue() == 0) {
+			glyphs.drawHover(overlay, hover, column * cellSize, row * cellSize);
 		}
-		
-		graphics.setFill(Color.rgb(0, 0, 0, 1));
 	}
 	
 	public void toggleNotes() {
@@ -1,8 +1,9 @@
 package view_controller;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
+import model.GameCompletedEvent;
 import model.SudokuGame;
 
 /**
@@ -13,10 +14,12 @@ import model.SudokuGame;
 public class SudokuConsoleGUI {
 
 	private static SudokuGame game;
+	private static boolean won;
 
 	public static void main(String[] args) {
 		game = new SudokuGame("premade");
 		game.solve();
+		game.addObserver(event -> won |= event instanceof GameCompletedEvent);
 		Scanner input = new Scanner(System.in);
 		while (true) {
 			game.printBoard("");
@@ -41,11 +44,11 @@ public class SudokuConsoleGUI {
 				checkCorrect(vals[0], vals[1]);
 				break;
 			case "showcandidate":
-				ArrayList<Integer> c = game.getCandidates(vals[0], vals[1]);
+				List<Integer> c = game.getCandidates(vals[0], vals[1]);
 				System.out.println(c);
 				break;
 			}
-			if (game.checkIfSolutionIsCorrect()) {
+			if (won) {
 				return;
 			}
 		}
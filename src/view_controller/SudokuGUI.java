@@ -1,9 +1,14 @@
 package view_controller;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
 import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.Scene;
@@ -21,6 +26,7 @@ import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import model.OurObserver;
+import model.PuzzlePool;
 import model.SoundManager;
 import model.SudokuCell;
 import model.SudokuGame;
@@ -34,6 +40,9 @@ public class SudokuGUI extends Application {
 	}
 	
 	private SudokuGame game;
+	private PuzzlePool puzzlePool;
+	// the new game being generated, if any
+	private CompletableFuture<SudokuGame> pendingGame;
 	
 	private Button newGameButton;
 	
@@ -57,23 +66,25 @@ public class SudokuGUI extends Application {
 	
 	private OurObserver board;
 	private SudokuSidebar sidebar;
+	// when start() began, for reportFirstFrame
+	private long started;
 	@Override
 	public void start(Stage stage) throws Exception {
 		this.stage = stage;
+		started = System.nanoTime();
+		ImageCache.preload();
 		
 		initializeView();
 		
-		game = new SudokuGame(difficulty);
-		board = new SudokuBoard(game, boardSize, soundManager);
-		game.addObserver(board);
+		puzzlePool = new PuzzlePool();
+		soundManager = new SoundManager();
+		// the board and sidebar are added once the first game is ready
+		requestGame();
 		stackPane.setId("stackPane");
 		
-		sidebar = new SudokuSidebar((SudokuBoard) board, game, sidebarWidth, sidebarHeight);
-		sidebar.setId("sidebar");
-		
 		newGameButton = new Button();
 		pauseButton = new Button();
-		Image pausePath = new Image("./Images/Pause-Button.png");
+		Image pausePath = ImageCache.get(ImageCache.PAUSE);
         ImageView undoImage = new ImageView(pausePath);
         undoImage.setFitHeight(20);
         undoImage.setFitWidth(20);
@@ -83,12 +94,32 @@ public class SudokuGUI extends Application {
 
 		hbar.getChildren().addAll(timerText,pauseButton, easy, medium);
 
-		stackPane.getChildren().add((Node)board);
-		pane.getChildren().addAll(stackPane, sidebar, newGameButton,hbar);
+		pane.getChildren().addAll(stackPane, newGameButton,hbar);
 		
 		setLayouts();
 	}
 	
+	/*
+	 * Description: prints how long after start() began the next pulse came. it
+	 * is started once the first game's board and sidebar are in the stage, so
+	 * that pulse is the one that draws the first full frame. only used when the
+	 * sudoku.reportFirstFrame system property is true
+	 */
+	private void reportFirstFrame() {
+		new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				stop();
+				System.out.printf("First frame %.1f ms after start%n", (System.nanoTime() - started) / 1e6);
+			}
+		}.start();
+	}
+	
+	@Override
+	public void stop() {
+		puzzlePool.shutdown();
+	}
+	
 	/*
 	 * Description: Initializes necessary visual componenets
 	 */
@@ -123,8 +154,6 @@ public class SudokuGUI extends Application {
 	private void setLayouts() {
 		stackPane.setLayoutX(50);
 		stackPane.setLayoutY((700 - 450) / 2);
-		sidebar.setLayoutX(550);
-		sidebar.setLayoutY(50);
 		
 		newGameButton.setLayoutX(50);
 		newGameButton.setLayoutY(boardSize + (700 - 450) / 2 + 10);
@@ -140,7 +169,7 @@ public class SudokuGUI extends Application {
 	 */
 	private void setupNewGame() {
 		newGameButton = new Button();
-		Image undoPath = new Image("./Images/newGameButton.png");
+		Image undoPath = ImageCache.get(ImageCache.NEW_GAME);
         ImageView undoImage = new ImageView(undoPath);
         undoImage.setFitHeight(100);
         undoImage.setFitWidth(boardSize-10);
@@ -181,12 +210,81 @@ public class SudokuGUI extends Application {
         
         newGameButton.setGraphic(undoImage);
         newGameButton.setOnAction(e->{
-        	game = new SudokuGame(difficulty);
-        	((SudokuBoard) board).setGame(game);
-        	sidebar.setGame(game);
-        	game.addObserver(board);
-        	timerText.setText("00:00");
+        	requestGame();
         });
 	}
 	
+	/*
+	 * Description: creates a game of the chosen difficulty in the background and
+	 * starts it once it is ready. a newer request replaces a game still being
+	 * generated
+	 */
+	private void requestGame() {
+		if (pendingGame != null) {
+			pendingGame.cancel(false);
+		}
+		CompletableFuture<SudokuGame> request = SudokuGame.createAsync(difficulty, puzzlePool);
+		pendingGame = request;
+		if (board != null) {
+			((Node) board).setOpacity(0.5);
+		}
+		request.whenCompleteAsync((newGame, error) -> {
+			if (pendingGame != request) {
+				return;
+			}
+			pendingGame = null;
+			if (board != null) {
+				((Node) board).setOpacity(1);
+			}
+			if (newGame != null) {
+				startGame(newGame);
+			} else if (!(error instanceof CancellationException)) {
+				error.printStackTrace();
+				Alert alert = new Alert(Alert.AlertType.ERROR, "A new game couldn't be created: " + error.getMessage());
+				alert.setHeaderText(null);
+				alert.show();
+			}
+		}, Platform::runLater);
+	}
+	
+	/*
+	 * Description: swaps a newly created game in for the current one, or shows
+	 * the board and sidebar for the first game
+	 */
+	private void startGame(SudokuGame newGame) {
+		if (game == null) {
+			showFirstGame(newGame);
+			return;
+		}
+		// the old game is dropped, so stop it holding on to the board
+		game.removeObserver(board);
+		game = newGame;
+		((SudokuBoard) board).setGame(game);
+		sidebar.setGame(game);
+		game.addObserver(board);
+		timerText.setText("00:00");
+	}
+	
+	/*
+	 * Description: builds the board and sidebar around the first game and adds
+	 * them to the stage
+	 */
+	private void showFirstGame(SudokuGame firstGame) {
+		game = firstGame;
+		board = new SudokuBoard(game, boardSize, soundManager);
+		game.addObserver(board);
+		
+		sidebar = new SudokuSidebar((SudokuBoard) board, game, sidebarWidth, sidebarHeight);
+		sidebar.setId("sidebar");
+		sidebar.setLayoutX(550);
+		sidebar.setLayoutY(50);
+		
+		stackPane.getChildren().add((Node)board);
+		pane.getChildren().add(sidebar);
+		timerText.setText("00:00");
+		if (Boolean.getBoolean("sudoku.reportFirstFrame")) {
+			reportFirstFrame();
+		}
+	}
+	
 }
@@ -1,8 +1,6 @@
 package view_controller;
 
 
-import java.util.ArrayList;
-
 import javafx.scene.control.Button;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -10,7 +8,6 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
-import model.SudokuCell;
 import model.SudokuGame;
 
 /**
@@ -75,18 +72,12 @@ public class SudokuSidebar extends BorderPane{
 					
 					int column = board.getColumn();
 					int row = board.getRow();
-					int value = game.getBoard().get(row).get(column).getHeldValue();
+					int value = game.getCell(row, column).getHeldValue();
 					
 					int buttonValue = Integer.parseInt(button.getText());
 					
 					if (board.notesOn() && !game.getCell(row, column).isInitial()) {
-						if (game.getCandidates(row, column).contains(buttonValue)) {
-							game.getCandidates(row, column).removeIf(n -> n == buttonValue);
-							board.update(board);
-						}
-						else {
-							game.addCandidate(row, column, buttonValue);
-						}
+						game.toggleCandidate(row, column, buttonValue);
 					}
 					
 					else if (!board.notesOn() && !game.getCell(row, column).isInitial() && value!=buttonValue) {
@@ -99,7 +90,7 @@ public class SudokuSidebar extends BorderPane{
 	
 	private void setupNotesButton() {
 		notesButton = new Button();
-        Image notesPath = new Image("./Images/Notes-icon.png");
+        Image notesPath = ImageCache.get(ImageCache.NOTES);
         ImageView notesImage = new ImageView(notesPath);
         notesImage.setFitHeight(30);
         notesImage.setFitWidth(30);
@@ -119,7 +110,7 @@ public class SudokuSidebar extends BorderPane{
 	
 	private void setupEraseButton() {
 		eraseButton = new Button();
-		Image erasePath = new Image("./Images/eraseButtonImage.jpg");
+		Image erasePath = ImageCache.get(ImageCache.ERASE);
         ImageView eraseImage = new ImageView(erasePath);
         eraseImage.setFitHeight(30);
         eraseImage.setFitWidth(30);
@@ -139,7 +130,7 @@ public class SudokuSidebar extends BorderPane{
 	
 	private void setupUndoButton() {
 		undoButton = new Button();
-		Image undoPath = new Image("./Images/undoButton.png");
+		Image undoPath = ImageCache.get(ImageCache.UNDO);
         ImageView undoImage = new ImageView(undoPath);
         undoImage.setFitHeight(30);
         undoImage.setFitWidth(30);
@@ -156,7 +147,7 @@ public class SudokuSidebar extends BorderPane{
 	
 	public void setupResetButton() {
 		resetButton = new Button();
-		Image undoPath = new Image("./Images/resetButton.png");
+		Image undoPath = ImageCache.get(ImageCache.RESET);
         ImageView undoImage = new ImageView(undoPath);
         undoImage.setFitHeight(120);
         undoImage.setFitWidth(width);
@@ -164,43 +155,31 @@ public class SudokuSidebar extends BorderPane{
         resetButton.setGraphic(undoImage);
         resetButton.setOnAction(e->{
         	game.resetGame();
-        	for (ArrayList<SudokuCell> row : game.getBoard()) {
-        		for (SudokuCell cell : row) {
-        			cell.clearCandidates();
-        		}
-        	}
-        	game.notifyObservers(game);
         });
 	}
 	
 	public void setupRevealCellButton() {
 		revealCellButton = new Button();
-		Image undoPath = new Image("./Images/revealCellButton.png");
+		Image undoPath = ImageCache.get(ImageCache.REVEAL_CELL);
         ImageView undoImage = new ImageView(undoPath);
         undoImage.setFitHeight(30);
         undoImage.setFitWidth(30);
         
         revealCellButton.setGraphic(undoImage);
         revealCellButton.setOnAction(e->{
-        	game.getCell(board.getRow(), board.getColumn()).clearCandidates();
         	game.showCorrectCell(board.getRow(), board.getColumn());
         });
 	}
 	
 	public void setupRevealButton() {
 		revealButton = new Button();
-		Image undoPath = new Image("./Images/revealButton.png");
+		Image undoPath = ImageCache.get(ImageCache.REVEAL);
         ImageView undoImage = new ImageView(undoPath);
         undoImage.setFitHeight(30);
         undoImage.setFitWidth(30);
         
         revealButton.setGraphic(undoImage);
         revealButton.setOnAction(e->{
-        	for (int row = 0 ; row < game.getBoard().size() ; row++) {
-        		for (int col = 0 ; col < game.getBoard().get(row).size() ; col++) {
-        			game.getCell(row, col).clearCandidates();
-        		}
-        	}
         	game.revealBoard();
         });
 	}